@@ -0,0 +1,78 @@
+package edu.drury.mandelbrotnavigator.benchmarks;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.color.ColorTable;
+import edu.drury.mandelbrotnavigator.render.FrameSampler;
+import edu.drury.mandelbrotnavigator.render.View;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Coloring the escape values of a rendered 640 x 360 frame. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ColorBenchmark {
+	private static final int WIDTH = 640;
+	private static final int HEIGHT = 360;
+
+	@Param({"home", "seahorse"})
+	private String view;
+
+	private int[] values;
+	private int[] pixels;
+	private int iterations;
+	private ColorGenerator generator;
+	private ColorTable table;
+
+	@Setup
+	public void setUp() {
+		View frame = Views.get(view, WIDTH, HEIGHT);
+		FrameSampler sampler = FrameSampler.create(frame);
+		values = new int[WIDTH * HEIGHT];
+		for (int y = 0; y < HEIGHT; y++) {
+			sampler.computeRow(0.5, 1, y + 0.5, values, y * WIDTH, WIDTH);
+		}
+		pixels = new int[values.length];
+		iterations = frame.getIterations();
+		generator = new ColorGenerator(frame.getPalette());
+		table = generator.getColorTable(iterations);
+	}
+
+	/** Per-pixel palette interpolation, as painting did before color tables. */
+	@Benchmark
+	public int[] getColor() {
+		for (int i = 0; i < values.length; i++) {
+			int[] rgb = generator.getColor(values[i], iterations);
+			pixels[i] = 0xFF000000 | rgb[0] << 16 | rgb[1] << 8 | rgb[2];
+		}
+		return pixels;
+	}
+
+	@Benchmark
+	public int[] colorTable() {
+		for (int i = 0; i < values.length; i++) {
+			pixels[i] = table.colorOf(values[i]);
+		}
+		return pixels;
+	}
+
+	/** Building the table itself, which happens whenever the palette or the iteration count changes. */
+	@Benchmark
+	public ColorTable buildColorTable() {
+		return new ColorGenerator(generator.getPalette()).getColorTable(iterations);
+	}
+}
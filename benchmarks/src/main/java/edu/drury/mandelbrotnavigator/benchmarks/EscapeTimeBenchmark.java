@@ -0,0 +1,68 @@
+package edu.drury.mandelbrotnavigator.benchmarks;
+
+import edu.drury.mandelbrotnavigator.math.MandelbrotMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Escape time of single points, one per kind of orbit. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class EscapeTimeBenchmark {
+	/**
+	 * {@code exterior} escapes after 13 iterations, {@code boundary} (in the neck between the cardioid and the
+	 * period-2 bulb) after 313, {@code interior} is caught by cycle detection and {@code cardioid} is rejected
+	 * without iterating.
+	 */
+	@Param({"exterior", "boundary", "interior", "cardioid"})
+	private String point;
+
+	@Param({"1000"})
+	private int iterations;
+
+	private double a;
+	private double b;
+
+	@Setup
+	public void setUp() {
+		switch (point) {
+			case "exterior":
+				a = 0.4;
+				b = 0.3;
+				break;
+			case "boundary":
+				a = -0.75;
+				b = 0.01;
+				break;
+			case "interior":
+				a = -0.1225;
+				b = 0.7449;
+				break;
+			case "cardioid":
+				a = -0.2;
+				b = 0.1;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown point: " + point);
+		}
+	}
+
+	@Benchmark
+	public int getMandelbrotValue() {
+		return MandelbrotMath.getMandelbrotValue(a, b, iterations);
+	}
+}
@@ -0,0 +1,80 @@
+package edu.drury.mandelbrotnavigator.benchmarks;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.color.ColorTable;
+import edu.drury.mandelbrotnavigator.render.FrameSampler;
+import edu.drury.mandelbrotnavigator.render.RenderExecutor;
+import edu.drury.mandelbrotnavigator.render.SubdivisionRenderer;
+import edu.drury.mandelbrotnavigator.render.View;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete 320 x 180 frames on all render threads, from creating the sampler (and any reference orbit) to colored
+ * pixels, computing every row or subdividing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FrameBenchmark {
+	private static final int WIDTH = 320;
+	private static final int HEIGHT = 180;
+
+	@Param({"home", "seahorse", "doubleDouble", "perturbation"})
+	private String view;
+
+	private View frame;
+	private ColorTable colors;
+	private RenderExecutor executor;
+
+	@Setup
+	public void setUp() {
+		frame = Views.get(view, WIDTH, HEIGHT);
+		colors = new ColorGenerator(frame.getPalette()).getColorTable(frame.getIterations());
+		executor = new RenderExecutor();
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Benchmark
+	public int[] rows() {
+		FrameSampler sampler = FrameSampler.create(frame);
+		int[] pixels = new int[WIDTH * HEIGHT];
+		executor.forEachRow(0, HEIGHT, y -> {
+			sampler.computeRow(0.5, 1, y + 0.5, pixels, y * WIDTH, WIDTH);
+			for (int x = y * WIDTH; x < (y + 1) * WIDTH; x++) {
+				pixels[x] = colors.colorOf(pixels[x]);
+			}
+		});
+		return pixels;
+	}
+
+	@Benchmark
+	public int[] subdivision() {
+		int[] pixels = new int[WIDTH * HEIGHT];
+		new SubdivisionRenderer(FrameSampler.create(frame), WIDTH, HEIGHT, pixels, () -> false)
+				.render(executor, WIDTH / 2, HEIGHT / 2, (x, y, width, height) -> {});
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = colors.colorOf(pixels[i]);
+		}
+		return pixels;
+	}
+}
@@ -0,0 +1,53 @@
+package edu.drury.mandelbrotnavigator.benchmarks;
+
+import edu.drury.mandelbrotnavigator.math.EscapeTimeKernel;
+import edu.drury.mandelbrotnavigator.math.MandelbrotMath;
+import edu.drury.mandelbrotnavigator.render.View;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** The SIMD and scalar double precision kernels on the same 1920 pixel row. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark {
+	private static final int WIDTH = 1920;
+
+	@Param({"home", "seahorse"})
+	private String view;
+
+	/** {@code vector} is the kernel in use, which is the scalar one if the Vector API is unavailable. */
+	@Param({"vector", "scalar"})
+	private String kernel;
+
+	private EscapeTimeKernel rowKernel;
+	private View rowView;
+	private final int[] values = new int[WIDTH];
+
+	@Setup
+	public void setUp() {
+		rowView = Views.get(view, WIDTH, 1080);
+		rowKernel = kernel.equals("scalar") ? MandelbrotMath.getScalarKernel() : MandelbrotMath.getKernel();
+	}
+
+	@Benchmark
+	public int[] computeRow() {
+		rowKernel.computeRow(rowView.getLeft() + rowView.getStep() / 2, rowView.getStep(),
+				rowView.getY().doubleValue(), rowView.getIterations(), values, 0, WIDTH);
+		return values;
+	}
+}
@@ -0,0 +1,48 @@
+package edu.drury.mandelbrotnavigator.benchmarks;
+
+import edu.drury.mandelbrotnavigator.render.FrameSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One row across the middle of a 1920 x 1080 view, the unit of work of progressive rendering, through the sampler the
+ * renderer picks for the view.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RowBenchmark {
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+
+	@Param({"home", "seahorse", "doubleDouble", "perturbation"})
+	private String view;
+
+	private FrameSampler sampler;
+	private final int[] values = new int[WIDTH];
+
+	@Setup
+	public void setUp() {
+		sampler = FrameSampler.create(Views.get(view, WIDTH, HEIGHT));
+	}
+
+	@Benchmark
+	public int[] computeRow() {
+		sampler.computeRow(0.5, 1, HEIGHT / 2 + 0.5, values, 0, WIDTH);
+		return values;
+	}
+}
@@ -0,0 +1,43 @@
+package edu.drury.mandelbrotnavigator.benchmarks;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.math.DoubleDouble;
+import edu.drury.mandelbrotnavigator.render.RenderMode;
+import edu.drury.mandelbrotnavigator.render.View;
+
+import java.math.BigDecimal;
+
+/** Fixed views the benchmarks render, one per arithmetic the renderer picks. */
+final class Views {
+	/** Center of the deep views, on the zoom path into the seahorse valley. */
+	private static final String X = "-0.743643887037158704752191506114774";
+	private static final String Y = "0.131825904205311970493132056385139";
+
+	private Views() {
+	}
+
+	/**
+	 * Returns the view called {@code name}: {@code home} (the whole set), or one of three depths of a zoom into the
+	 * seahorse valley: {@code seahorse} in doubles, {@code doubleDouble} just past double precision and
+	 * {@code perturbation} past double-double precision. Iterations are enough to resolve most of each view.
+	 */
+	static View get(String name, int width, int height) {
+		switch (name) {
+			case "home":
+				return view("-0.5", "0", 2.75, 256, width, height);
+			case "seahorse":
+				return view(X, Y, 1e-7, 3000, width, height);
+			case "doubleDouble":
+				return view(X, Y, 1e-17, 10000, width, height);
+			case "perturbation":
+				return view(X, Y, 1e-29, 40000, width, height);
+			default:
+				throw new IllegalArgumentException("Unknown view: " + name);
+		}
+	}
+
+	private static View view(String x, String y, double scale, int iterations, int width, int height) {
+		return new View(DoubleDouble.valueOf(new BigDecimal(x)), DoubleDouble.valueOf(new BigDecimal(y)), scale,
+				iterations, ColorGenerator.FIRE, width, height, RenderMode.PROGRESSIVE);
+	}
+}
@@ -0,0 +1,227 @@
+package edu.drury.mandelbrotnavigator;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.export.ImageExporter;
+import edu.drury.mandelbrotnavigator.export.ImageFormat;
+import edu.drury.mandelbrotnavigator.export.IterationFile;
+import edu.drury.mandelbrotnavigator.export.ZoomSequence;
+import edu.drury.mandelbrotnavigator.math.DoubleDouble;
+import edu.drury.mandelbrotnavigator.render.IterationBudget;
+import edu.drury.mandelbrotnavigator.render.RenderExecutor;
+import edu.drury.mandelbrotnavigator.render.RenderMode;
+import edu.drury.mandelbrotnavigator.render.RenderStats;
+import edu.drury.mandelbrotnavigator.render.SubdivisionRenderer;
+import edu.drury.mandelbrotnavigator.render.View;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Headless entry point that renders one view to an image file, for scripts and machines without a display. Options
+ * are given as {@code --name value} pairs; see {@link #USAGE}.
+ */
+public class BatchRenderer {
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage: BatchRenderer --output <file> [options]",
+			"  --x <real>            center real part (default -0.5)",
+			"  --y <imaginary>       center imaginary part (default 0)",
+			"  --scale <height>      height of the view in the complex plane (default 2.75)",
+			"  --iterations <n>      maximum iterations (default chosen from the scale), or auto to choose them",
+			"                        from a sample of the view, or of the deepest frame of a zoom sequence",
+			"  --palette <name>      Default, Fire, RGB or Gold (default Default)",
+			"  --coloring <name>     Banded, or Smooth for normalized iteration counts over a palette equalized",
+			"                        by a histogram of the view (default Banded)",
+			"  --width <pixels>      image width (default 1920)",
+			"  --height <pixels>     image height (default 1080)",
+			"  --format <format>     PNG, PPM, RAW or TIFF (default from the output extension, else PNG)",
+			"  --compression <0-9>   PNG compression level (default 6)",
+			"  --field <file>        also save the escape values to an iteration file; resumes from it if an",
+			"                        earlier render of the same view into the file was interrupted",
+			"  --verify subdivision  instead of writing an image, render the view by subdivision and pixel by",
+			"                        pixel and exit with status 1 if any escape value differs",
+			"Coloring a saved iteration file instead of rendering:",
+			"  --from-field <file>   iteration file to color; takes --palette, --format and --compression",
+			"  --downsample <n>      average n x n values into each pixel (default 1)",
+			"Zoom sequences, written as numbered frames into the --output directory:",
+			"  --frames <n>          number of frames from the view above to the target",
+			"  --to-x <real>         target center real part",
+			"  --to-y <imaginary>    target center imaginary part",
+			"  --to-scale <height>   target height in the complex plane");
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i += 2) {
+			if (!args[i].startsWith("--") || i + 1 == args.length) {
+				fail("Expected --name value pairs, got " + args[i]);
+			}
+			options.put(args[i].substring(2), args[i + 1]);
+		}
+
+		String output = take(options, "output", null);
+		String verify = take(options, "verify", null);
+		if (verify != null && !"subdivision".equals(verify)) {
+			fail("Unknown check: " + verify);
+		}
+		if (output == null && verify == null) {
+			fail("Missing --output");
+		}
+
+		View view;
+		ImageFormat format;
+		int compressionLevel;
+		ZoomSequence sequence = null;
+		boolean automatic = false;
+		String field = take(options, "field", null);
+		try {
+			String formatName = take(options, "format", null);
+			format = formatName != null ? ImageFormat.forName(formatName)
+					: output != null ? ImageFormat.forFile(output) : ImageFormat.PNG;
+			compressionLevel = Integer.parseInt(take(options, "compression", "6"));
+			if (compressionLevel < 0 || compressionLevel > 9) {
+				throw new IllegalArgumentException("Compression level must be between 0 and 9");
+			}
+
+			String fromField = take(options, "from-field", null);
+			if (fromField != null) {
+				String palette = take(options, "palette", null);
+				int downsample = Integer.parseInt(take(options, "downsample", "1"));
+				if (downsample <= 0) {
+					throw new IllegalArgumentException("Downsampling factor must be positive");
+				}
+				if (!options.isEmpty()) {
+					fail("Unknown options with --from-field: " + options.keySet());
+				}
+				if (output == null) {
+					fail("--verify cannot be used with --from-field");
+				}
+				recolor(fromField, palette != null ? ColorGenerator.forName(palette) : null, downsample, output,
+						format, compressionLevel);
+				return;
+			}
+
+			double scale = Double.parseDouble(take(options, "scale", "2.75"));
+			String frames = take(options, "frames", null);
+			double targetScale = frames != null ? Double.parseDouble(take(options, "to-scale", "NaN")) : scale;
+			String iterations = take(options, "iterations", null);
+			automatic = "auto".equals(iterations);
+			view = new View(
+					DoubleDouble.valueOf(new BigDecimal(take(options, "x", "-0.5"))),
+					DoubleDouble.valueOf(new BigDecimal(take(options, "y", "0"))),
+					scale,
+					iterations != null && !automatic
+							? Integer.parseInt(iterations)
+							: MandelbrotNavigator.getIterations(Math.min(scale, targetScale)),
+					ColorGenerator.forName(take(options, "palette", "Default")),
+					Integer.parseInt(take(options, "width", "1920")),
+					Integer.parseInt(take(options, "height", "1080")),
+					RenderMode.PROGRESSIVE)
+					.withColoring(Coloring.forName(take(options, "coloring", "Banded")));
+
+			if (frames != null) {
+				String targetX = take(options, "to-x", null);
+				String targetY = take(options, "to-y", null);
+				if (targetX == null || targetY == null || !(targetScale > 0)) {
+					throw new IllegalArgumentException("--frames needs --to-x, --to-y and a positive --to-scale");
+				}
+				sequence = new ZoomSequence(view, DoubleDouble.valueOf(new BigDecimal(targetX)),
+						DoubleDouble.valueOf(new BigDecimal(targetY)), targetScale, Integer.parseInt(frames));
+			}
+		} catch (IllegalArgumentException e) {
+			fail(e.getMessage());
+			return;
+		}
+
+		if (!options.isEmpty()) {
+			fail("Unknown options: " + options.keySet());
+		}
+		if (verify != null && (output != null || field != null || sequence != null)) {
+			fail("--verify cannot be used with --output, --field or --frames");
+		}
+		if (field != null && sequence != null) {
+			fail("--field cannot be used with --frames");
+		}
+		if (view.getWidth() <= 0 || view.getHeight() <= 0 || view.getScale() <= 0 || view.getIterations() <= 0) {
+			fail("Width, height, scale and iterations must be positive");
+		}
+
+		RenderExecutor executor = new RenderExecutor();
+		try {
+			long start = System.nanoTime();
+			if (automatic) {
+				int iterations = IterationBudget.choose(view, executor, () -> false);
+				if (sequence != null) {
+					iterations = Math.max(iterations, IterationBudget.choose(
+							sequence.getFrame(sequence.getFrameCount() - 1), executor, () -> false));
+					sequence = sequence.withIterations(iterations);
+				}
+				view = view.withIterations(iterations);
+				System.out.printf("Chose %d iterations in %.1f s%n", iterations, (System.nanoTime() - start) / 1e9);
+			}
+			if (verify != null) {
+				int mismatches = SubdivisionRenderer.countMismatches(view);
+				System.out.printf("Subdivision: %d of %d pixels differ from pixel by pixel rendering in %.1f s%n",
+						mismatches, (long) view.getWidth() * view.getHeight(), (System.nanoTime() - start) / 1e9);
+				if (mismatches > 0) {
+					System.exit(1);
+				}
+				return;
+			}
+			if (sequence != null) {
+				File directory = new File(output);
+				if (!directory.isDirectory() && !directory.mkdirs()) {
+					throw new IOException("Cannot create directory " + directory);
+				}
+				int frames = sequence.getFrameCount();
+				sequence.render(executor, directory, format, compressionLevel,
+						frame -> System.out.printf("Wrote frame %d of %d%n", frame + 1, frames));
+			} else {
+				RenderStats stats = ImageExporter.export(view, executor, new File(output), format, compressionLevel,
+						field != null ? new File(field) : null);
+				System.out.println(stats);
+			}
+			System.out.printf("Wrote %s (%d x %d, %d iterations) in %.1f s%n", output, view.getWidth(),
+					view.getHeight(), view.getIterations(), (System.nanoTime() - start) / 1e9);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void recolor(String fieldFile, Color[] palette, int downsample, String output, ImageFormat format,
+			int compressionLevel) {
+		RenderExecutor executor = new RenderExecutor();
+		try (IterationFile field = IterationFile.open(Paths.get(fieldFile))) {
+			long start = System.nanoTime();
+			ImageExporter.export(field, palette != null ? palette : field.getView().getPalette(), downsample,
+					executor, new File(output), format, compressionLevel);
+			System.out.printf("Wrote %s (%d x %d) from %s in %.1f s%n", output, field.getWidth() / downsample,
+					field.getHeight() / downsample, fieldFile, (System.nanoTime() - start) / 1e9);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static String take(Map<String, String> options, String name, String defaultValue) {
+		String value = options.remove(name);
+		return value != null ? value : defaultValue;
+	}
+
+	private static void fail(String message) {
+		System.err.println(message);
+		System.err.println(USAGE);
+		System.exit(2);
+	}
+}
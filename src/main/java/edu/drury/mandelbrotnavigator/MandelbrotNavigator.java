@@ -1,9 +1,19 @@
 package edu.drury.mandelbrotnavigator;
 
 import edu.drury.mandelbrotnavigator.color.ColorGenerator;
-import edu.drury.mandelbrotnavigator.math.MandelbrotMath;
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.export.ImageExporter;
+import edu.drury.mandelbrotnavigator.export.ImageFormat;
+import edu.drury.mandelbrotnavigator.export.IterationFile;
+import edu.drury.mandelbrotnavigator.export.ZoomSequence;
+import edu.drury.mandelbrotnavigator.math.DoubleDouble;
+import edu.drury.mandelbrotnavigator.render.RenderEngine;
+import edu.drury.mandelbrotnavigator.render.RenderListener;
+import edu.drury.mandelbrotnavigator.render.RenderMode;
+import edu.drury.mandelbrotnavigator.render.RenderStats;
+import edu.drury.mandelbrotnavigator.render.Tile;
+import edu.drury.mandelbrotnavigator.render.View;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
@@ -13,29 +23,36 @@ import javax.swing.text.NumberFormatter;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.*;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.stream.IntStream;
+import java.util.zip.Deflater;
 
 public class MandelbrotNavigator implements ActionListener, PropertyChangeListener, ListSelectionListener {
-	private static final double DEFAULT_X = -0.5;
-	private static final double DEFAULT_Y = 0;
+	private static final DoubleDouble DEFAULT_X = DoubleDouble.valueOf(-0.5);
+	private static final DoubleDouble DEFAULT_Y = DoubleDouble.ZERO;
 	private static final double DEFAULT_SCALE = 2.75;
 	private static final int DEFAULT_ITERATIONS = getIterations(DEFAULT_SCALE);
 
 	private double scale = DEFAULT_SCALE;
-	private double x = DEFAULT_X;
-	private double y = DEFAULT_Y;
+	private DoubleDouble x = DEFAULT_X;
+	private DoubleDouble y = DEFAULT_Y;
 	private int iterations = DEFAULT_ITERATIONS;
+	private boolean automaticIterations;
+	private Coloring coloring = Coloring.BANDED;
+	private RenderMode renderMode = RenderMode.PROGRESSIVE;
 
 	private int panelMainMousePressStartScreenX;
 	private int panelMainMousePressStartScreenY;
-	private double panelMainMousePressStartPosX;
-	private double panelMainMousePressStartPosY;
+	private DoubleDouble panelMainMousePressStartPosX;
+	private DoubleDouble panelMainMousePressStartPosY;
 
 	private final ColorGenerator colorGenerator = new ColorGenerator(ColorGenerator.FIRE);
 
@@ -70,19 +87,27 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 	private final JButton positionButtonReset = new JButton();
 	// - Colors
 	private final JComboBox<String> colorsComboBox = new JComboBox<>();
+	private final JCheckBox colorsCheckBoxSmooth = new JCheckBox();
 	// - Generation
 	private final JLabel generationLabelIterations = new JLabel();
 	private final JFormattedTextField generationFieldIterations = new JFormattedTextField();
 	private final JButton generationButtonReset = new JButton();
+	private final JCheckBox generationCheckBoxAutomatic = new JCheckBox();
+	private final JLabel generationLabelRenderer = new JLabel();
+	private final JComboBox<String> generationComboBoxRenderer = new JComboBox<>();
+	private final JCheckBox generationCheckBoxStatistics = new JCheckBox();
 	// - Bookmarks
 	private final JButton bookmarksButtonSave = new JButton();
 	private final JList<Bookmark> bookmarksList = new JList<>();
 	private final JButton bookmarksButtonGoTo = new JButton();
 	private final JButton bookmarksButtonDelete = new JButton();
 	private final JButton bookmarksButtonRename = new JButton();
+	private final JButton bookmarksButtonZoomVideo = new JButton();
 	// - Export
 	private final JButton exportButtonSave = new JButton();
 	private final JButton exportButtonSaveAdvanced = new JButton();
+	private final JButton exportButtonSaveIterations = new JButton();
+	private final JButton exportButtonColorIterations = new JButton();
 
 	private MandelbrotNavigator() {
 		/* Frame */ {
@@ -127,11 +152,13 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 				@Override
 				public void mouseDragged(MouseEvent e) {
 					super.mouseDragged(e);
-					x = panelMainMousePressStartPosX - (e.getX() - panelMainMousePressStartScreenX) * (scale / panelMain.height);
-					y = panelMainMousePressStartPosY + (e.getY() - panelMainMousePressStartScreenY) * (scale / panelMain.height);
-					positionFieldX.setValue(x);
-					positionFieldY.setValue(y);
-					panelMain.repaint();
+					x = panelMainMousePressStartPosX.subtract(
+							(e.getX() - panelMainMousePressStartScreenX) * (scale / panelMain.height));
+					y = panelMainMousePressStartPosY.add(
+							(e.getY() - panelMainMousePressStartScreenY) * (scale / panelMain.height));
+					positionFieldX.setValue(x.toBigDecimal());
+					positionFieldY.setValue(y.toBigDecimal());
+					panelMain.render();
 				}
 			});
 
@@ -161,15 +188,15 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 					double toMoveX = distX - (distX / distToScreenEdgeX * distToScreenEdgeAfterX);
 					double toMoveY = distY - (distY / distToScreenEdgeY * distToScreenEdgeAfterY);
 
-					x = x + toMoveX;
-					y = y - toMoveY;
+					x = x.add(toMoveX);
+					y = y.subtract(toMoveY);
 
-					positionFieldX.setValue(x);
-					positionFieldY.setValue(y);
+					positionFieldX.setValue(x.toBigDecimal());
+					positionFieldY.setValue(y.toBigDecimal());
 					setIterations();
 					positionFieldScale.setValue(scale);
 					generationFieldIterations.setValue(iterations);
-					panelMain.repaint();
+					panelMain.render();
 				}
 			});
 		}
@@ -225,25 +252,26 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 
 			positionLabelX.setText("X:");
 
-			NumberFormat numberFormat = NumberFormat.getNumberInstance();
-			numberFormat.setMaximumFractionDigits(22);
+			DecimalFormat numberFormat = (DecimalFormat) NumberFormat.getNumberInstance();
+			numberFormat.setMaximumFractionDigits(40);
+			numberFormat.setParseBigDecimal(true);
 
 			positionFieldX.setFormatterFactory(
 					new DefaultFormatterFactory(new NumberFormatter(numberFormat)));
-			positionFieldX.setValue(x);
+			positionFieldX.setValue(x.toBigDecimal());
 			positionFieldX.addPropertyChangeListener("value", this);
 
 			positionLabelY.setText("Y:");
 
 			positionFieldY.setFormatterFactory(
 					new DefaultFormatterFactory(new NumberFormatter(numberFormat)));
-			positionFieldY.setValue(y);
+			positionFieldY.setValue(y.toBigDecimal());
 			positionFieldY.addPropertyChangeListener("value", this);
 
 			positionLabelScale.setText("Scale:");
 
 			positionFieldScale.setFormatterFactory(
-					new DefaultFormatterFactory(new NumberFormatter(numberFormat)));
+					new DefaultFormatterFactory(new NumberFormatter(new DecimalFormat("0.################E0"))));
 			positionFieldScale.setValue(scale);
 			positionFieldScale.addPropertyChangeListener("value", this);
 
@@ -319,6 +347,10 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			colorsComboBox.setActionCommand("colorsChanged");
 			colorsComboBox.addActionListener(this);
 
+			colorsCheckBoxSmooth.setText("Smooth coloring");
+			colorsCheckBoxSmooth.setActionCommand("colorsSmoothChanged");
+			colorsCheckBoxSmooth.addActionListener(this);
+
 			GridBagConstraints gridBagConstraints = new GridBagConstraints();
 
 			gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
@@ -328,6 +360,10 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			gridBagConstraints.gridy = 0;
 
 			panelColors.add(colorsComboBox, gridBagConstraints);
+
+			gridBagConstraints.gridy++;
+
+			panelColors.add(colorsCheckBoxSmooth, gridBagConstraints);
 		}
 
 		/* Generation Panel */ {
@@ -345,6 +381,23 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			generationButtonReset.setActionCommand("generationReset");
 			generationButtonReset.addActionListener(this);
 
+			generationCheckBoxAutomatic.setText("Automatic iterations");
+			generationCheckBoxAutomatic.setActionCommand("generationAutomaticChanged");
+			generationCheckBoxAutomatic.addActionListener(this);
+
+			generationLabelRenderer.setText("Renderer:");
+
+			generationComboBoxRenderer.addItem("Progressive");
+			generationComboBoxRenderer.addItem("Tiled");
+			generationComboBoxRenderer.addItem("Subdivision");
+			generationComboBoxRenderer.setSelectedIndex(0);
+			generationComboBoxRenderer.setActionCommand("generationRendererChanged");
+			generationComboBoxRenderer.addActionListener(this);
+
+			generationCheckBoxStatistics.setText("Show statistics");
+			generationCheckBoxStatistics.setActionCommand("generationStatisticsChanged");
+			generationCheckBoxStatistics.addActionListener(this);
+
 			GridBagConstraints gridBagConstraints = new GridBagConstraints();
 
 			gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
@@ -365,6 +418,27 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			gridBagConstraints.gridy++;
 
 			panelGeneration.add(generationButtonReset, gridBagConstraints);
+
+			gridBagConstraints.gridy++;
+
+			panelGeneration.add(generationCheckBoxAutomatic, gridBagConstraints);
+
+			gridBagConstraints.gridwidth = 1;
+			gridBagConstraints.weightx = 0.0;
+			gridBagConstraints.gridy++;
+
+			panelGeneration.add(generationLabelRenderer, gridBagConstraints);
+
+			gridBagConstraints.weightx = 1.0;
+			gridBagConstraints.gridx = 1;
+
+			panelGeneration.add(generationComboBoxRenderer, gridBagConstraints);
+
+			gridBagConstraints.gridwidth = 2;
+			gridBagConstraints.gridx = 0;
+			gridBagConstraints.gridy++;
+
+			panelGeneration.add(generationCheckBoxStatistics, gridBagConstraints);
 		}
 
 		/* Bookmarks Panel */ {
@@ -407,6 +481,11 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			bookmarksButtonRename.setActionCommand("bookmarksRename");
 			bookmarksButtonRename.addActionListener(this);
 
+			bookmarksButtonZoomVideo.setText("Zoom video to");
+			bookmarksButtonZoomVideo.setEnabled(false);
+			bookmarksButtonZoomVideo.setActionCommand("bookmarksZoomVideo");
+			bookmarksButtonZoomVideo.addActionListener(this);
+
 			GridBagConstraints gridBagConstraints = new GridBagConstraints();
 
 			gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
@@ -434,6 +513,12 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			gridBagConstraints.gridx = 1;
 
 			panelBookmarks.add(bookmarksButtonDelete, gridBagConstraints);
+
+			gridBagConstraints.gridy++;
+			gridBagConstraints.gridx = 0;
+			gridBagConstraints.gridwidth = 2;
+
+			panelBookmarks.add(bookmarksButtonZoomVideo, gridBagConstraints);
 		}
 
 		/* Serialized Bookmarks */ {
@@ -452,6 +537,14 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			exportButtonSaveAdvanced.addActionListener(this);
 			exportButtonSaveAdvanced.setActionCommand("exportSaveAdvanced");
 
+			exportButtonSaveIterations.setText("Save iterations");
+			exportButtonSaveIterations.addActionListener(this);
+			exportButtonSaveIterations.setActionCommand("exportSaveIterations");
+
+			exportButtonColorIterations.setText("Color saved iterations");
+			exportButtonColorIterations.addActionListener(this);
+			exportButtonColorIterations.setActionCommand("exportColorIterations");
+
 			GridBagConstraints gridBagConstraints = new GridBagConstraints();
 
 			gridBagConstraints.fill = GridBagConstraints.HORIZONTAL;
@@ -465,6 +558,14 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			gridBagConstraints.gridy++;
 
 			panelExport.add(exportButtonSaveAdvanced, gridBagConstraints);
+
+			gridBagConstraints.gridy++;
+
+			panelExport.add(exportButtonSaveIterations, gridBagConstraints);
+
+			gridBagConstraints.gridy++;
+
+			panelExport.add(exportButtonColorIterations, gridBagConstraints);
 		}
 
 		/* End */ {
@@ -475,116 +576,263 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 		}
 	}
 
-	private class MainPanel extends JPanel {
-		private BufferedImage image;
+	private class MainPanel extends JPanel implements RenderListener {
+		private final RenderEngine renderEngine = new RenderEngine(this);
+		private BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		private long frame;
 		private int width = 0;
 		private int height = 0;
-		private double left = 0;
-		private double top = 0;
-		private double step = 0;
-
-		private final int numPasses = 16;
-		private int pass = numPasses;
-
-		private BufferedImage exportImage;
+		private RenderStats stats;
+		private boolean statisticsShown;
 
-		@Override
-		protected void paintComponent(Graphics g) {
-			super.paintComponent(g);
+		private MainPanel() {
+			addComponentListener(new ComponentAdapter() {
+				@Override
+				public void componentResized(ComponentEvent e) {
+					render();
+				}
+			});
+			addMouseMotionListener(new MouseAdapter() {
+				@Override
+				public void mouseMoved(MouseEvent e) {
+					renderEngine.setFocus(e.getX(), e.getY());
+				}
+			});
+			addMouseListener(new MouseAdapter() {
+				@Override
+				public void mouseExited(MouseEvent e) {
+					renderEngine.setFocus(-1, -1);
+				}
+			});
+		}
 
+		public void render() {
 			width = getWidth();
 			height = getHeight();
-			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
-			left = x - (1.0 * width / height) * scale / 2;
-			top = y + scale / 2;
-			step = scale / height;
-
-			IntStream.range(0, (int) Math.ceil((double) height / pass)).parallel().forEach(this::paintRow);
-
-			g.drawImage(image, 0, 0, null);
+			if (width <= 0 || height <= 0) {
+				return;
+			}
 
-			if (pass > 1) {
-				pass--;
-				super.repaint();
-			} else {
-				pass = numPasses;
+			if (image.getWidth() != width || image.getHeight() != height) {
+				BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+				Graphics graphics = resized.getGraphics();
+				graphics.drawImage(image, 0, 0, null);
+				graphics.dispose();
+				image = resized;
 			}
+
+			View view = new View(x, y, scale, iterations, colorGenerator.getPalette(), width, height, renderMode)
+					.withColoring(coloring);
+			frame = automaticIterations ? renderEngine.submitAutomatic(view) : renderEngine.submit(view);
 		}
 
-		private void paintRow(int y) {
-			for (int x = 0; x < width; x += pass) {
-				int value = MandelbrotMath.getMandelbrotValue(left + x * step + pass / 2.0 * step,
-						top - y * pass * step - pass / 2.0 * step, iterations);
-				int[] rgb = colorGenerator.getColor(value, iterations);
+		@Override
+		public void tileRendered(Tile tile) {
+			SwingUtilities.invokeLater(() -> {
+				if (tile.getFrame() != frame || tile.getX() + tile.getWidth() > image.getWidth()
+						|| tile.getY() + tile.getHeight() > image.getHeight()) {
+					return;
+				}
 
-				for (int py = 0; py < pass; py++) {
-					for (int px = 0; px < pass; px++) {
-						if (x + px < width && y * pass + py < height) {
-							image.setRGB(x + px, y * pass + py, 0x10000 * rgb[0] + 0x100 * rgb[1] + rgb[2]);
-						}
-					}
+				int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+				for (int row = 0; row < tile.getHeight(); row++) {
+					System.arraycopy(tile.getPixels(), row * tile.getWidth(),
+							data, (tile.getY() + row) * image.getWidth() + tile.getX(), tile.getWidth());
 				}
-			}
+				repaint(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+			});
+		}
+
+		@Override
+		public void frameRendered(RenderStats stats) {
+			SwingUtilities.invokeLater(() -> {
+				this.stats = stats;
+				if (automaticIterations && stats.getFrame() == frame) {
+					iterations = stats.getIterationLimit();
+					generationFieldIterations.setValue(iterations);
+				}
+				if (statisticsShown) {
+					repaint();
+				}
+			});
+		}
+
+		public void setStatisticsShown(boolean statisticsShown) {
+			this.statisticsShown = statisticsShown;
+			repaint();
 		}
 
 		@Override
-		public void repaint() {
-			pass = numPasses;
-			super.repaint();
+		protected void paintComponent(Graphics g) {
+			super.paintComponent(g);
+			g.drawImage(image, 0, 0, null);
+			if (statisticsShown && stats != null) {
+				paintStatistics(g);
+			}
+		}
+
+		/** Draws the measurements of the last completed frame and of each of its passes in the top left corner. */
+		private void paintStatistics(Graphics g) {
+			ArrayList<String> lines = new ArrayList<>();
+			lines.add(String.format(Locale.ROOT, "Frame %d, %s, %dx%d, %d iterations max", stats.getFrame(),
+					stats.getName(), stats.getWidth(), stats.getHeight(), stats.getIterationLimit()));
+			lines.add(String.format(Locale.ROOT, "%.1f ms, <= %.1f M iterations/s, %.1f ms coloring",
+					stats.getWallNanos() / 1e6, stats.getIterationsPerSecond() / 1e6, stats.getColorizeNanos() / 1e6));
+			lines.add(String.format(Locale.ROOT, "%d computed, %d reused, %.1f%% interior",
+					stats.getPixelsComputed(), stats.getPixelsReused(), 100 * stats.getInteriorRatio()));
+			if (stats.getSeriesNanos() > 0) {
+				lines.add(String.format(Locale.ROOT, "series: %.1f ms, %d iterations skipped per pixel",
+						stats.getSeriesNanos() / 1e6, stats.getSeriesSkippedIterations()));
+			}
+			StringBuilder threads = new StringBuilder(
+					String.format(Locale.ROOT, "%.0f%% busy:", 100 * stats.getUtilization()));
+			for (double utilization : stats.getThreadUtilization()) {
+				threads.append(String.format(Locale.ROOT, " %.0f", 100 * utilization));
+			}
+			lines.add(threads.toString());
+			for (RenderStats pass : stats.getPasses()) {
+				lines.add(String.format(Locale.ROOT, "%s: %.1f ms, %d computed, %.1f M iterations, %.0f%% busy",
+						pass.getName(), pass.getWallNanos() / 1e6, pass.getPixelsComputed(),
+						pass.getIterations() / 1e6, 100 * pass.getUtilization()));
+			}
+
+			FontMetrics metrics = g.getFontMetrics();
+			int lineHeight = metrics.getHeight();
+			int boxWidth = 0;
+			for (String line : lines) {
+				boxWidth = Math.max(boxWidth, metrics.stringWidth(line));
+			}
+			g.setColor(new Color(0, 0, 0, 160));
+			g.fillRect(4, 4, boxWidth + 12, lines.size() * lineHeight + 8);
+			g.setColor(Color.WHITE);
+			for (int i = 0; i < lines.size(); i++) {
+				g.drawString(lines.get(i), 10, 8 + i * lineHeight + metrics.getAscent());
+			}
 		}
 
 		public void exportPNG(String path) {
 			try {
-				ImageIO.write(image, "png", new File(path));
+				ImageExporter.export(((DataBufferInt) image.getRaster().getDataBuffer()).getData(),
+						image.getWidth(), image.getHeight(), renderEngine.getExecutor(), new File(path),
+						ImageFormat.PNG, Deflater.DEFAULT_COMPRESSION);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
 		}
 
-		public void advancedExportCreatePNG(int width, int height) {
-			exportImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		/** Renders the sequence on a background thread and reports when it is done. */
+		public void exportZoomSequence(ZoomSequence sequence, File directory, ImageFormat format) {
+			runInBackground("zoom-sequence", "Zoom Video", "Zoom video to " + directory.getPath(), () -> {
+				sequence.render(renderEngine.getExecutor(), directory, format, Deflater.DEFAULT_COMPRESSION,
+						index -> {});
+				return "Wrote " + sequence.getFrameCount() + " frames to " + directory.getPath();
+			});
+		}
 
-			left = x - ((double) width / height) * scale / 2;
-			top = y + scale / 2;
-			double step = scale / height;
+		/**
+		 * Exports the current view on a background thread, also saving its escape values to {@code fieldPath} unless
+		 * it is null, and reports when it is done or failed.
+		 */
+		public void advancedExport(int width, int height, String path, ImageFormat format, int compressionLevel,
+				String fieldPath) {
+			View view = new View(x, y, scale, iterations, colorGenerator.getPalette(), width, height, renderMode)
+					.withColoring(coloring);
+			runInBackground("image-export", "Export", "Export of " + path, () -> {
+				RenderStats stats = ImageExporter.export(view, renderEngine.getExecutor(), new File(path), format,
+						compressionLevel, fieldPath != null ? new File(fieldPath) : null);
+				return String.format(Locale.ROOT, "Wrote %s (%d x %d) in %.1f s", path, width, height,
+						stats.getWallNanos() / 1e9);
+			});
+		}
 
-			IntStream.range(0, height).parallel().forEach(row -> advancedExportPaintRow(row, width, left, top, step));
+		/** Saves the escape values of the view on screen on a background thread and reports when it is done. */
+		public void exportIterations(String path) {
+			View view = new View(x, y, scale, iterations, colorGenerator.getPalette(), width, height, renderMode)
+					.withColoring(coloring);
+			runInBackground("iteration-export", "Save Iterations", "Saving " + path, () -> {
+				long start = System.nanoTime();
+				ImageExporter.exportIterations(view, renderEngine.getExecutor(), new File(path));
+				return String.format(Locale.ROOT, "Wrote %s (%d x %d) in %.1f s", path, view.getWidth(),
+						view.getHeight(), (System.nanoTime() - start) / 1e9);
+			});
 		}
 
-		public void advancedExportPNG(String path) {
-			try {
-				ImageIO.write(exportImage, "png", new File(path));
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+		/**
+		 * Colors saved escape values into an image on a background thread, without computing them again, and reports
+		 * when it is done.
+		 */
+		public void colorIterations(String fieldPath, Color[] palette, int downsample, String path,
+				ImageFormat format) {
+			runInBackground("iteration-coloring", "Color Iterations", "Coloring " + path, () -> {
+				long start = System.nanoTime();
+				try (IterationFile field = IterationFile.open(new File(fieldPath).toPath())) {
+					ImageExporter.export(field, palette, downsample, renderEngine.getExecutor(), new File(path),
+							format, Deflater.DEFAULT_COMPRESSION);
+				}
+				return String.format(Locale.ROOT, "Wrote %s from %s in %.1f s", path, fieldPath,
+						(System.nanoTime() - start) / 1e9);
+			});
 		}
 
-		private void advancedExportPaintRow(int y, int width, double left, double top, double step) {
-			for (int x = 0; x < width; x++) {
-				int value = MandelbrotMath.getMandelbrotValue(left + x * step, top - y * step, iterations);
-				int[] rgb = colorGenerator.getColor(value, iterations);
-				exportImage.setRGB(x, y, 0x10000 * rgb[0] + 0x100 * rgb[1] + rgb[2]);
-			}
+		/**
+		 * Runs {@code task} on a daemon thread called {@code name}, then shows the message it returns, or reports that
+		 * {@code action} failed, in a dialog titled {@code title}.
+		 */
+		private void runInBackground(String name, String title, String action, BackgroundTask task) {
+			Thread thread = new Thread(() -> {
+				try {
+					String message = task.run();
+					SwingUtilities.invokeLater(
+							() -> JOptionPane.showMessageDialog(MandelbrotNavigator.this.frame, message, title,
+									JOptionPane.INFORMATION_MESSAGE));
+				} catch (IOException | RuntimeException e) {
+					e.printStackTrace();
+					SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(MandelbrotNavigator.this.frame,
+							action + " failed: " + e.getMessage(), title, JOptionPane.ERROR_MESSAGE));
+				}
+			}, name);
+			thread.setDaemon(true);
+			thread.start();
 		}
 	}
 
+	/** Work run off the event thread that returns the message to show when it is done. */
+	private interface BackgroundTask {
+		String run() throws IOException;
+	}
+
 	private static class Bookmark implements Serializable {
+		private static final long serialVersionUID = 2241100492645728654L;
+
 		private final String name;
 		private final double x;
 		private final double y;
 		private final double scale;
+		/** Low parts of the double-double coordinates. Zero for bookmarks saved before they were added. */
+		private final double xLow;
+		private final double yLow;
 
-		public Bookmark(String name, double x, double y, double scale) {
+		public Bookmark(String name, DoubleDouble x, DoubleDouble y, double scale) {
 			this.name = name;
-			this.x = x;
-			this.y = y;
+			this.x = x.hi();
+			this.y = y.hi();
 			this.scale = scale;
+			this.xLow = x.lo();
+			this.yLow = y.lo();
+		}
+
+		public DoubleDouble getX() {
+			return DoubleDouble.valueOf(x, xLow);
+		}
+
+		public DoubleDouble getY() {
+			return DoubleDouble.valueOf(y, yLow);
 		}
 
 		@Override
 		public String toString() {
-			return "Bookmark{" + "name='" + name + '\'' + ", x=" + x + ", y=" + y + ", scale=" + scale + '}';
+			return "Bookmark{" + "name='" + name + '\'' + ", x=" + getX() + ", y=" + getY() + ", scale=" + scale + '}';
 		}
 
 		@Override
@@ -592,12 +840,12 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			if (this == o) return true;
 			if (o == null || getClass() != o.getClass()) return false;
 			Bookmark bookmark = (Bookmark) o;
-			return Double.compare(bookmark.x, x) == 0 && Double.compare(bookmark.y, y) == 0 && Double.compare(bookmark.scale, scale) == 0 && Objects.equals(name, bookmark.name);
+			return Double.compare(bookmark.x, x) == 0 && Double.compare(bookmark.y, y) == 0 && Double.compare(bookmark.scale, scale) == 0 && Double.compare(bookmark.xLow, xLow) == 0 && Double.compare(bookmark.yLow, yLow) == 0 && Objects.equals(name, bookmark.name);
 		}
 
 		@Override
 		public int hashCode() {
-			return Objects.hash(name, x, y, scale);
+			return Objects.hash(name, x, y, scale, xLow, yLow);
 		}
 	}
 
@@ -609,45 +857,55 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			setIterations();
 			positionFieldScale.setValue(scale);
 			generationFieldIterations.setValue(iterations);
-			panelMain.repaint();
+			panelMain.render();
 		} else if (e.getActionCommand().equals("positionZoomOut")) {
 			scale *= 1.25;
 			setIterations();
 			positionFieldScale.setValue(scale);
 			generationFieldIterations.setValue(iterations);
-			panelMain.repaint();
+			panelMain.render();
 		} else if (e.getActionCommand().equals("positionReset")) {
 			scale = DEFAULT_SCALE;
 			x = DEFAULT_X;
 			y = DEFAULT_Y;
 			iterations = DEFAULT_ITERATIONS;
 			positionFieldScale.setValue(scale);
-			positionFieldX.setValue(x);
-			positionFieldY.setValue(y);
+			positionFieldX.setValue(x.toBigDecimal());
+			positionFieldY.setValue(y.toBigDecimal());
 			generationFieldIterations.setValue(iterations);
-			panelMain.repaint();
+			panelMain.render();
 		}
 		// Colors
 		else if (e.getActionCommand().equals("colorsChanged")) {
-			if (Objects.equals(colorsComboBox.getSelectedItem(), "Default")) {
-				colorGenerator.setPalette(ColorGenerator.DEFAULT);
-				panelMain.repaint();
-			} else if (Objects.equals(colorsComboBox.getSelectedItem(), "Fire")) {
-				colorGenerator.setPalette(ColorGenerator.FIRE);
-				panelMain.repaint();
-			} else if (Objects.equals(colorsComboBox.getSelectedItem(), "RGB")) {
-				colorGenerator.setPalette(ColorGenerator.RGB);
-				panelMain.repaint();
-			} else if (Objects.equals(colorsComboBox.getSelectedItem(), "Gold")) {
-				colorGenerator.setPalette(ColorGenerator.GOLD);
-				panelMain.repaint();
-			}
+			colorGenerator.setPalette(ColorGenerator.forName((String) colorsComboBox.getSelectedItem()));
+			panelMain.render();
+		} else if (e.getActionCommand().equals("colorsSmoothChanged")) {
+			coloring = colorsCheckBoxSmooth.isSelected() ? Coloring.SMOOTH : Coloring.BANDED;
+			panelMain.render();
 		}
 		// Generation
 		else if (e.getActionCommand().equals("generationReset")) {
 			setIterations();
 			generationFieldIterations.setValue(iterations);
-			panelMain.repaint();
+			panelMain.render();
+		} else if (e.getActionCommand().equals("generationRendererChanged")) {
+			if (Objects.equals(generationComboBoxRenderer.getSelectedItem(), "Progressive")) {
+				renderMode = RenderMode.PROGRESSIVE;
+				panelMain.render();
+			} else if (Objects.equals(generationComboBoxRenderer.getSelectedItem(), "Tiled")) {
+				renderMode = RenderMode.TILED;
+				panelMain.render();
+			} else if (Objects.equals(generationComboBoxRenderer.getSelectedItem(), "Subdivision")) {
+				renderMode = RenderMode.SUBDIVISION;
+				panelMain.render();
+			}
+		} else if (e.getActionCommand().equals("generationAutomaticChanged")) {
+			automaticIterations = generationCheckBoxAutomatic.isSelected();
+			generationFieldIterations.setEnabled(!automaticIterations);
+			generationButtonReset.setEnabled(!automaticIterations);
+			panelMain.render();
+		} else if (e.getActionCommand().equals("generationStatisticsChanged")) {
+			panelMain.setStatisticsShown(generationCheckBoxStatistics.isSelected());
 		}
 		// Bookmarks
 		else if (e.getActionCommand().equals("bookmarksSave")) {
@@ -663,13 +921,58 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 		} else if (e.getActionCommand().equals("bookmarksGoTo")) {
 			for (Bookmark bookmark : getBookmarksFromIO()) {
 				if (bookmarksList.getSelectedValue().equals(bookmark)) {
-					x = bookmark.x;
-					y = bookmark.y;
+					x = bookmark.getX();
+					y = bookmark.getY();
 					scale = bookmark.scale;
-					positionFieldX.setValue(x);
-					positionFieldY.setValue(y);
+					positionFieldX.setValue(x.toBigDecimal());
+					positionFieldY.setValue(y.toBigDecimal());
 					positionFieldScale.setValue(scale);
-					panelMain.repaint();
+					panelMain.render();
+				}
+			}
+		} else if (e.getActionCommand().equals("bookmarksZoomVideo")) {
+			Bookmark target = bookmarksList.getSelectedValue();
+			JFormattedTextField framesField = new JFormattedTextField(NumberFormat.getIntegerInstance());
+			framesField.setValue(300);
+			JFormattedTextField widthField = new JFormattedTextField(NumberFormat.getIntegerInstance());
+			widthField.setValue(panelMain.width);
+			JFormattedTextField heightField = new JFormattedTextField(NumberFormat.getIntegerInstance());
+			heightField.setValue(panelMain.height);
+			JComboBox<ImageFormat> formatComboBox = new JComboBox<>(ImageFormat.values());
+			Object[] message = {
+					"Frames: ", framesField,
+					"Width: ", widthField,
+					"Height: ", heightField,
+					"Format: ", formatComboBox,
+					"Zoom videos only support banded coloring."
+			};
+			int option = JOptionPane.showConfirmDialog(
+					frame, message, "Zoom Video to " + target.name, JOptionPane.OK_CANCEL_OPTION);
+
+			if (option == JOptionPane.OK_OPTION) {
+				JFileChooser fileChooser = new JFileChooser();
+				fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+				File exportsDir = new File("./exports");
+				if (exportsDir.exists() || exportsDir.mkdir()) {
+					fileChooser.setCurrentDirectory(exportsDir);
+				}
+				if (fileChooser.showSaveDialog(frame) == JFileChooser.APPROVE_OPTION) {
+					File directory = fileChooser.getSelectedFile();
+					if (directory.isDirectory() || directory.mkdirs()) {
+						try {
+							panelMain.exportZoomSequence(new ZoomSequence(
+									new View(x, y, scale, iterations, colorGenerator.getPalette(),
+											((Number) widthField.getValue()).intValue(),
+											((Number) heightField.getValue()).intValue(), renderMode)
+											.withColoring(coloring),
+									target.getX(), target.getY(), target.scale,
+									((Number) framesField.getValue()).intValue()),
+									directory, (ImageFormat) formatComboBox.getSelectedItem());
+						} catch (IllegalArgumentException ex) {
+							JOptionPane.showMessageDialog(frame, ex.getMessage(), "Zoom Video to " + target.name,
+									JOptionPane.ERROR_MESSAGE);
+						}
+					}
 				}
 			}
 		} else if (e.getActionCommand().equals("bookmarksRename")) {
@@ -684,7 +987,8 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 					if (bookmarkName != null && !bookmarkName.equals("")) {
 						int index = bookmarks.indexOf(bookmark);
 						bookmarks.remove(bookmark);
-						bookmarks.add(index, new Bookmark(bookmarkName, selected.x, selected.y, selected.scale));
+						bookmarks.add(index, new Bookmark(bookmarkName, selected.getX(), selected.getY(),
+								selected.scale));
 						setBookmarksIO(bookmarks);
 						setJListFromIO();
 					}
@@ -723,6 +1027,59 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 					panelMain.exportPNG(path);
 				}
 			}
+		} else if (e.getActionCommand().equals("exportSaveIterations")) {
+			JFileChooser fileChooser = new JFileChooser();
+			fileChooser.setFileFilter(new FileNameExtensionFilter("Iterations", "mbi"));
+			fileChooser.setAcceptAllFileFilterUsed(false);
+			File exportsDir = new File("./exports");
+			if (exportsDir.exists() || exportsDir.mkdir()) {
+				fileChooser.setCurrentDirectory(exportsDir);
+			}
+			if (fileChooser.showSaveDialog(frame) == JFileChooser.APPROVE_OPTION) {
+				String path = fileChooser.getSelectedFile().getPath();
+				if (!path.endsWith(".mbi")) {
+					path += ".mbi";
+				}
+				panelMain.exportIterations(path);
+			}
+		} else if (e.getActionCommand().equals("exportColorIterations")) {
+			JFileChooser fieldChooser = new JFileChooser();
+			fieldChooser.setFileFilter(new FileNameExtensionFilter("Iterations", "mbi"));
+			fieldChooser.setCurrentDirectory(new File("./exports"));
+			if (fieldChooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+				return;
+			}
+			String fieldPath = fieldChooser.getSelectedFile().getPath();
+
+			JComboBox<String> paletteComboBox = new JComboBox<>(new String[] {"Default", "Fire", "RGB", "Gold"});
+			paletteComboBox.setSelectedItem(colorsComboBox.getSelectedItem());
+			JComboBox<Integer> downsampleComboBox = new JComboBox<>(new Integer[] {1, 2, 3, 4});
+			JComboBox<ImageFormat> formatComboBox = new JComboBox<>(ImageFormat.values());
+			Object[] message = {
+					"Colors: ", paletteComboBox,
+					"Downsample by: ", downsampleComboBox,
+					"Format: ", formatComboBox
+			};
+			if (JOptionPane.showConfirmDialog(null, message, "Color Saved Iterations",
+					JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+				return;
+			}
+			ImageFormat format = (ImageFormat) formatComboBox.getSelectedItem();
+			String extension = "." + format.getExtension();
+
+			JFileChooser fileChooser = new JFileChooser();
+			fileChooser.setFileFilter(new FileNameExtensionFilter(format.name(), format.getExtension()));
+			fileChooser.setAcceptAllFileFilterUsed(false);
+			fileChooser.setCurrentDirectory(new File("./exports"));
+			if (fileChooser.showSaveDialog(frame) == JFileChooser.APPROVE_OPTION) {
+				String path = fileChooser.getSelectedFile().getPath();
+				if (!path.endsWith(extension)) {
+					path += extension;
+				}
+				panelMain.colorIterations(fieldPath,
+						ColorGenerator.forName((String) paletteComboBox.getSelectedItem()),
+						(Integer) downsampleComboBox.getSelectedItem(), path, format);
+			}
 		} else if (e.getActionCommand().equals("exportSaveAdvanced")) {
 			JFormattedTextField widthField = new JFormattedTextField(NumberFormat.getIntegerInstance()) {
 				@Override
@@ -744,9 +1101,16 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 				}
 			};
 			heightField.setValue(panelMain.height);
+			JComboBox<ImageFormat> formatComboBox = new JComboBox<>(ImageFormat.values());
+			JComboBox<Integer> compressionComboBox = new JComboBox<>(new Integer[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+			compressionComboBox.setSelectedItem(6);
+			JCheckBox iterationsCheckBox = new JCheckBox("Save iterations (.mbi) to resume if interrupted");
 			Object[] message = {
 					"Width: ", widthField,
-					"Height: ", heightField
+					"Height: ", heightField,
+					"Format: ", formatComboBox,
+					"PNG compression level: ", compressionComboBox,
+					iterationsCheckBox
 			};
 			int widthHeightOption = JOptionPane.showConfirmDialog(
 					null, message, "Advanced Export", JOptionPane.OK_CANCEL_OPTION);
@@ -754,9 +1118,12 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 			if (widthHeightOption == JOptionPane.OK_OPTION) {
 				int width = ((Number) widthField.getValue()).intValue();
 				int height = ((Number) heightField.getValue()).intValue();
+				ImageFormat format = (ImageFormat) formatComboBox.getSelectedItem();
+				int compressionLevel = (Integer) compressionComboBox.getSelectedItem();
+				String extension = "." + format.getExtension();
 
 				JFileChooser fileChooser = new JFileChooser();
-				fileChooser.setFileFilter(new FileNameExtensionFilter("PNG", "png"));
+				fileChooser.setFileFilter(new FileNameExtensionFilter(format.name(), format.getExtension()));
 				fileChooser.setAcceptAllFileFilterUsed(false);
 				File exportsDir = new File("./exports");
 				boolean exportsDirExists = exportsDir.exists();
@@ -768,13 +1135,15 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 					int option = fileChooser.showSaveDialog(frame);
 					String path = fileChooser.getSelectedFile().getPath();
 					String name = fileChooser.getSelectedFile().getName();
-					if (!name.endsWith(".png")) {
-						name += ".png";
-						path += ".png";
+					if (!name.endsWith(extension)) {
+						name += extension;
+						path += extension;
 					}
-					if (option == JFileChooser.APPROVE_OPTION && !name.equals(".png")) {
-						panelMain.advancedExportCreatePNG(width, height);
-						panelMain.advancedExportPNG(path);
+					if (option == JFileChooser.APPROVE_OPTION && !name.equals(extension)) {
+						String fieldPath = iterationsCheckBox.isSelected()
+								? path.substring(0, path.length() - extension.length()) + ".mbi"
+								: null;
+						panelMain.advancedExport(width, height, path, format, compressionLevel, fieldPath);
 					}
 				}
 			}
@@ -786,21 +1155,21 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 		Object source = e.getSource();
 		// Position
 		if (source == positionFieldX) {
-			x = ((Number) positionFieldX.getValue()).doubleValue();
-			panelMain.repaint();
+			x = toDoubleDouble(positionFieldX.getValue());
+			panelMain.render();
 		} else if (source == positionFieldY) {
-			y = ((Number) positionFieldY.getValue()).doubleValue();
-			panelMain.repaint();
+			y = toDoubleDouble(positionFieldY.getValue());
+			panelMain.render();
 		} else if (source == positionFieldScale) {
 			scale = ((Number) positionFieldScale.getValue()).doubleValue();
 			setIterations();
 			generationFieldIterations.setValue(iterations);
-			panelMain.repaint();
+			panelMain.render();
 		}
 		// Generation
-		else if (source == generationFieldIterations) {
+		else if (source == generationFieldIterations && !automaticIterations) {
 			iterations = ((Number) generationFieldIterations.getValue()).intValue();
-			panelMain.repaint();
+			panelMain.render();
 		}
 	}
 
@@ -811,10 +1180,12 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 				bookmarksButtonGoTo.setEnabled(false);
 				bookmarksButtonDelete.setEnabled(false);
 				bookmarksButtonRename.setEnabled(false);
+				bookmarksButtonZoomVideo.setEnabled(false);
 			} else {
 				bookmarksButtonGoTo.setEnabled(true);
 				bookmarksButtonDelete.setEnabled(true);
 				bookmarksButtonRename.setEnabled(true);
+				bookmarksButtonZoomVideo.setEnabled(true);
 			}
 		}
 	}
@@ -860,11 +1231,22 @@ public class MandelbrotNavigator implements ActionListener, PropertyChangeListen
 		}
 	}
 
+	private static DoubleDouble toDoubleDouble(Object value) {
+		if (value instanceof BigDecimal) {
+			return DoubleDouble.valueOf((BigDecimal) value);
+		}
+		return DoubleDouble.valueOf(((Number) value).doubleValue());
+	}
+
+	/** Sets the iterations from the scale, unless they are chosen automatically for each frame. */
 	private void setIterations() {
+		if (automaticIterations) {
+			return;
+		}
 		iterations = getIterations(scale);
 	}
 
-	private static int getIterations(double scale) {
+	static int getIterations(double scale) {
 		return Math.max(128, Math.min((int) (1 / scale * 512), 1024));
 	}
 
@@ -1,6 +1,8 @@
 package edu.drury.mandelbrotnavigator.color;
 
 import java.awt.*;
+import java.util.Arrays;
+import java.util.Locale;
 
 public class ColorGenerator {
 	public static final int NUM_PALETTES = 4;
@@ -36,17 +38,85 @@ public class ColorGenerator {
 			new Color(255, 240, 139)
 	};
 	private Color[] PALETTE;
+	private ColorTable colorTable;
+	private ColorTable equalizedTable;
 
 	public ColorGenerator(Color[] palette) {
 		this.PALETTE = palette;
 	}
 
 	public int[] getColor(int value, int iterations) {
+		int color = packedColor(PALETTE, value, iterations);
+		return new int[] {(color >> 16) & 0xFF, (color >> 8) & 0xFF, color & 0xFF};
+	}
+
+	/**
+	 * Returns the colors of every escape value up to {@code iterations}, building the table only when the palette or
+	 * iteration count changed since the last call.
+	 */
+	public synchronized ColorTable getColorTable(int iterations) {
+		if (colorTable == null || colorTable.getIterations() != iterations
+				|| !Arrays.equals(colorTable.getPalette(), PALETTE)) {
+			int[] colors = new int[iterations + 1];
+			for (int i = 0; i < colors.length; i++) {
+				colors[i] = packedColor(PALETTE, i - 1, iterations);
+			}
+			colorTable = new ColorTable(PALETTE, iterations, colors);
+		}
+		return colorTable;
+	}
+
+	/**
+	 * Returns colors that spread the palette once over the escape values up to {@code iterations}, where
+	 * {@code histogram[v]} counts the pixels of a frame with escape value {@code v}. Each escape value gets the
+	 * palette position of the share of escaped pixels below it, so every color covers about as many pixels whatever
+	 * the view and iteration limit.
+	 */
+	public synchronized ColorTable getEqualizedColorTable(int iterations, long[] histogram) {
+		long total = 0;
+		for (long count : histogram) {
+			total += count;
+		}
+
+		// Fractions of normalized iteration counts reach up to two escape values past the last one
+		int[] colors = new int[iterations + 4];
+		colors[0] = 0xFF000000;
+		long below = 0;
+		for (int value = 0; value < colors.length - 1; value++) {
+			colors[value + 1] = packedColor(PALETTE, total > 0 ? (double) below / total : 0);
+			if (value < histogram.length) {
+				below += histogram[value];
+			}
+		}
+		equalizedTable = new ColorTable(PALETTE, iterations, colors);
+		return equalizedTable;
+	}
+
+	/**
+	 * Returns the last table built by {@link #getEqualizedColorTable(int, long[])} while it is for the current palette
+	 * and {@code iterations}, to color a frame with until its own histogram is known, and the banded table otherwise.
+	 */
+	public synchronized ColorTable getLastEqualizedColorTable(int iterations) {
+		if (equalizedTable != null && equalizedTable.getIterations() == iterations
+				&& Arrays.equals(equalizedTable.getPalette(), PALETTE)) {
+			return equalizedTable;
+		}
+		return getColorTable(iterations);
+	}
+
+	/** Returns the color at {@code position} between the first color of a palette at 0 and the last at 1. */
+	static int packedColor(Color[] palette, double position) {
+		double scaled = Math.max(0, Math.min(position, 1)) * (palette.length - 1);
+		int i = Math.min((int) scaled, palette.length - 2);
+		return mix(palette[i], palette[i + 1], scaled - i);
+	}
+
+	static int packedColor(Color[] palette, int value, int iterations) {
 		int paletteSectionLength = iterations / NUM_PALETTES;
 		int paletteValue = value - value / Math.max(paletteSectionLength, 1) * paletteSectionLength;
-		int colorsSectionLength = paletteSectionLength / (PALETTE.length - 1);
+		int colorsSectionLength = paletteSectionLength / (palette.length - 1);
 
-		for (int i = 0; i < PALETTE.length - 1; i++) {
+		for (int i = 0; i < palette.length - 1; i++) {
 			int min = colorsSectionLength * i;
 			int max = colorsSectionLength * (i + 1);
 
@@ -54,21 +124,41 @@ public class ColorGenerator {
 				int colorSectionValue = paletteValue - paletteValue / colorsSectionLength * colorsSectionLength;
 				double ratio = (double) (colorSectionValue) / colorsSectionLength;
 
-				Color c1 = PALETTE[i];
-				Color c2 = PALETTE[i + 1];
-
-				return new int[] {
-						(int) Math.round(ratio * (c2.getRed() - c1.getRed()) + c1.getRed()),
-						(int) Math.round(ratio * (c2.getGreen() - c1.getGreen()) + c1.getGreen()),
-						(int) Math.round(ratio * (c2.getBlue() - c1.getBlue()) + c1.getBlue())
-				};
+				return mix(palette[i], palette[i + 1], ratio);
 			}
 		}
 
-		return new int[] {0, 0, 0};
+		return 0xFF000000;
+	}
+
+	private static int mix(Color c1, Color c2, double ratio) {
+		return 0xFF000000
+				| (int) Math.round(ratio * (c2.getRed() - c1.getRed()) + c1.getRed()) << 16
+				| (int) Math.round(ratio * (c2.getGreen() - c1.getGreen()) + c1.getGreen()) << 8
+				| (int) Math.round(ratio * (c2.getBlue() - c1.getBlue()) + c1.getBlue());
+	}
+
+	/** Returns the palette called {@code name} ("Default", "Fire", "RGB" or "Gold"), ignoring case. */
+	public static Color[] forName(String name) {
+		switch (name.toLowerCase(Locale.ROOT)) {
+			case "default":
+				return DEFAULT;
+			case "fire":
+				return FIRE;
+			case "rgb":
+				return RGB;
+			case "gold":
+				return GOLD;
+			default:
+				throw new IllegalArgumentException("Unknown palette: " + name);
+		}
+	}
+
+	public Color[] getPalette() {
+		return PALETTE;
 	}
 
-	public void setPalette(Color[] PALETTE) {
+	public synchronized void setPalette(Color[] PALETTE) {
 		this.PALETTE = PALETTE;
 	}
 }
@@ -0,0 +1,59 @@
+package edu.drury.mandelbrotnavigator.color;
+
+import java.awt.*;
+
+/**
+ * Packed ARGB colors of every escape value for one palette and iteration count, either banded or equalized over the
+ * escape values of one frame.
+ */
+public final class ColorTable {
+	private final Color[] palette;
+	private final int iterations;
+	private final int[] colors;
+
+	ColorTable(Color[] palette, int iterations, int[] colors) {
+		this.palette = palette;
+		this.iterations = iterations;
+		this.colors = colors;
+	}
+
+	/** Returns the packed ARGB color of an escape value, where {@code -1} means the point did not escape. */
+	public int colorOf(int value) {
+		int index = value + 1;
+		if (index >= 0 && index < colors.length) {
+			return colors[index];
+		}
+		return ColorGenerator.packedColor(palette, value, iterations);
+	}
+
+	/**
+	 * Returns the packed ARGB color of the normalized iteration count {@code value + fraction}, interpolated between
+	 * the colors of the escape values around it. Points that did not escape are colored like {@link #colorOf(int)}.
+	 */
+	public int colorOf(int value, float fraction) {
+		if (value < 0) {
+			return colorOf(value);
+		}
+		double whole = Math.floor(fraction);
+		int below = Math.max(0, value + (int) whole);
+		return mix(colorOf(below), colorOf(below + 1), fraction - whole);
+	}
+
+	private static int mix(int color, int next, double ratio) {
+		int red = color >> 16 & 0xFF;
+		int green = color >> 8 & 0xFF;
+		int blue = color & 0xFF;
+		return 0xFF000000
+				| (int) Math.round(ratio * ((next >> 16 & 0xFF) - red) + red) << 16
+				| (int) Math.round(ratio * ((next >> 8 & 0xFF) - green) + green) << 8
+				| (int) Math.round(ratio * ((next & 0xFF) - blue) + blue);
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	Color[] getPalette() {
+		return palette;
+	}
+}
@@ -0,0 +1,22 @@
+package edu.drury.mandelbrotnavigator.color;
+
+/** How escape values are mapped to the palette. */
+public enum Coloring {
+	/** Whole escape values, cycled through the palette {@link ColorGenerator#NUM_PALETTES} times. */
+	BANDED,
+	/**
+	 * Normalized iteration counts, spread over the palette once by histogram equalization of the frame's escape
+	 * values, so that every color covers about as many pixels.
+	 */
+	SMOOTH;
+
+	/** Returns the coloring called {@code name} ("Banded" or "Smooth"), ignoring case. */
+	public static Coloring forName(String name) {
+		for (Coloring coloring : values()) {
+			if (coloring.name().equalsIgnoreCase(name)) {
+				return coloring;
+			}
+		}
+		throw new IllegalArgumentException("Unknown coloring: " + name);
+	}
+}
@@ -0,0 +1,273 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.color.ColorTable;
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.render.EscapeHistogram;
+import edu.drury.mandelbrotnavigator.render.FrameRecorder;
+import edu.drury.mandelbrotnavigator.render.FrameSampler;
+import edu.drury.mandelbrotnavigator.render.RenderExecutor;
+import edu.drury.mandelbrotnavigator.render.RenderStats;
+import edu.drury.mandelbrotnavigator.render.View;
+
+import java.awt.*;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes images a band of rows at a time. Bands are produced and encoded in parallel, a few per render thread at
+ * once, and written in order, so memory use depends on the image width but not its height.
+ */
+public final class ImageExporter {
+	/** Approximate number of pixels per band; bands are at least one row high. */
+	private static final int BAND_PIXELS = 1 << 18;
+	/** Bands produced and encoded per render thread before they are written out. */
+	private static final int BANDS_PER_THREAD = 2;
+	/** Largest number of pixels of the preview whose histogram smooth exports are equalized with. */
+	private static final int PREVIEW_PIXELS = 1 << 20;
+
+	private ImageExporter() {
+	}
+
+	/** Renders a view at full resolution straight into a file and returns the measurements of the render. */
+	public static RenderStats export(View view, RenderExecutor executor, File file, ImageFormat format,
+			int compressionLevel) throws IOException {
+		return export(view, executor, file, format, compressionLevel, null);
+	}
+
+	/**
+	 * Renders a view at full resolution straight into a file, and also saves its escape values to an iteration file
+	 * unless {@code fieldFile} is null. The iteration file doubles as a checkpoint: bands are appended as soon as
+	 * they are computed, and if {@code fieldFile} already holds some bands of the same view, because an earlier
+	 * export was interrupted, those are read back instead of computed again. Smooth views compute them again anyway,
+	 * since iteration files hold whole escape values only.
+	 * <p>
+	 * Smooth views are equalized with the histogram of a preview of at most {@link #PREVIEW_PIXELS} pixels, since the
+	 * image is written before all of its escape values are known.
+	 */
+	public static RenderStats export(View view, RenderExecutor executor, File file, ImageFormat format,
+			int compressionLevel, File fieldFile) throws IOException {
+		int width = view.getWidth();
+		FrameRecorder recorder = new FrameRecorder(0, view, executor);
+		FrameSampler sampler = FrameSampler.create(view).recordingTo(recorder);
+		boolean smooth = view.getColoring() == Coloring.SMOOTH;
+		ColorTable colors = smooth
+				? equalizedColors(view, executor)
+				: new ColorGenerator(view.getPalette()).getColorTable(view.getIterations());
+		IterationFile checkpoint = fieldFile != null && fieldFile.isFile() ? openCheckpoint(view, fieldFile) : null;
+		IterationFileWriter field;
+		try {
+			field = checkpoint != null
+					? IterationFileWriter.resume(checkpoint, fieldFile.toPath())
+					: fieldFile != null ? new IterationFileWriter(fieldFile.toPath(), view, bandHeight(width)) : null;
+		} catch (IOException e) {
+			if (checkpoint != null) {
+				checkpoint.close();
+			}
+			throw e;
+		}
+
+		try {
+			write(width, view.getHeight(), executor, file, format, compressionLevel, (top, rows) -> {
+				int[] pixels = new int[width * rows];
+				float[] fractions = smooth ? new float[pixels.length] : null;
+				boolean saved = checkpoint != null && checkpoint.hasRow(top);
+				if (saved && !smooth) {
+					checkpoint.readRows(top, rows, pixels, 0);
+					recorder.reused(pixels.length);
+				} else {
+					for (int y = 0; y < rows; y++) {
+						sampler.computeRow(0.5, 1, top + y + 0.5, pixels, fractions, y * width, width);
+					}
+					if (field != null && !saved) {
+						field.write(field.encode(top, rows, pixels, 0));
+					}
+				}
+				long start = System.nanoTime();
+				for (int i = 0; i < pixels.length; i++) {
+					pixels[i] = smooth ? colors.colorOf(pixels[i], fractions[i]) : colors.colorOf(pixels[i]);
+				}
+				recorder.colorized(System.nanoTime() - start);
+				return pixels;
+			});
+			return recorder.finish("export", true);
+		} finally {
+			try {
+				if (field != null) {
+					field.close();
+				}
+			} finally {
+				if (checkpoint != null) {
+					checkpoint.close();
+				}
+			}
+		}
+	}
+
+	/** Returns the palette of a smooth view equalized over the escape values of a preview of the view. */
+	private static ColorTable equalizedColors(View view, RenderExecutor executor) {
+		double shrink = Math.max(1, Math.sqrt((double) view.getWidth() * view.getHeight() / PREVIEW_PIXELS));
+		int width = Math.max(1, (int) (view.getWidth() / shrink));
+		int height = Math.max(1, (int) (view.getHeight() / shrink));
+		FrameSampler sampler = FrameSampler.create(new View(view.getX(), view.getY(), view.getScale(),
+				view.getIterations(), view.getPalette(), width, height, view.getMode()));
+		int[] values = new int[width * height];
+		executor.forEachRow(0, height, y -> sampler.computeRow(0.5, 1, y + 0.5, values, y * width, width));
+
+		long[] histogram = EscapeHistogram.count(values, view.getIterations(), executor);
+		return new ColorGenerator(view.getPalette()).getEqualizedColorTable(view.getIterations(), histogram);
+	}
+
+	/** Opens an existing iteration file to resume from, after checking that it is for the same view. */
+	private static IterationFile openCheckpoint(View view, File fieldFile) throws IOException {
+		IterationFile checkpoint = IterationFile.open(fieldFile.toPath());
+		if (!checkpoint.getView().hasSameGeometry(view) || checkpoint.getBandHeight() != bandHeight(view.getWidth())) {
+			checkpoint.close();
+			throw new IOException(fieldFile + " holds the iterations of a different view");
+		}
+		return checkpoint;
+	}
+
+	/** Renders the escape values of a view straight into an iteration file, without coloring them. */
+	public static void exportIterations(View view, RenderExecutor executor, File fieldFile) throws IOException {
+		int width = view.getWidth();
+		int height = view.getHeight();
+		FrameSampler sampler = FrameSampler.create(view);
+		int bandHeight = bandHeight(width);
+
+		try (IterationFileWriter field = new IterationFileWriter(fieldFile.toPath(), view, bandHeight)) {
+			executor.forEachInOrder((height + bandHeight - 1) / bandHeight, band -> {
+				int top = band * bandHeight;
+				int rows = Math.min(bandHeight, height - top);
+				int[] values = new int[width * rows];
+				for (int y = 0; y < rows; y++) {
+					sampler.computeRow(0.5, 1, top + y + 0.5, values, y * width, width);
+				}
+				try {
+					field.write(field.encode(top, rows, values, 0));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Colors the escape values saved in an iteration file with {@code palette}, averaging blocks of
+	 * {@code downsample} by {@code downsample} values into one pixel. Nothing is computed again. Files hold whole
+	 * escape values only, so they are colored banded whatever coloring they were saved with.
+	 */
+	public static void export(IterationFile field, Color[] palette, int downsample, RenderExecutor executor,
+			File file, ImageFormat format, int compressionLevel) throws IOException {
+		if (!field.isComplete()) {
+			throw new IOException("The iteration file is incomplete");
+		}
+		int fieldWidth = field.getWidth();
+		int width = fieldWidth / downsample;
+		int height = field.getHeight() / downsample;
+		if (width == 0 || height == 0) {
+			throw new IllegalArgumentException("Cannot downsample " + fieldWidth + " x " + field.getHeight()
+					+ " by " + downsample);
+		}
+		ColorTable colors = new ColorGenerator(palette).getColorTable(field.getView().getIterations());
+		int samples = downsample * downsample;
+
+		write(width, height, executor, file, format, compressionLevel, (top, rows) -> {
+			int[] values = new int[fieldWidth * downsample];
+			int[] pixels = new int[width * rows];
+			for (int y = 0; y < rows; y++) {
+				field.readRows((top + y) * downsample, downsample, values, 0);
+				for (int x = 0; x < width; x++) {
+					int red = 0;
+					int green = 0;
+					int blue = 0;
+					for (int dy = 0; dy < downsample; dy++) {
+						for (int dx = 0; dx < downsample; dx++) {
+							int color = colors.colorOf(values[dy * fieldWidth + x * downsample + dx]);
+							red += color >> 16 & 0xFF;
+							green += color >> 8 & 0xFF;
+							blue += color & 0xFF;
+						}
+					}
+					pixels[y * width + x] = 0xFF000000 | (red + samples / 2) / samples << 16
+							| (green + samples / 2) / samples << 8 | (blue + samples / 2) / samples;
+				}
+			}
+			return pixels;
+		});
+	}
+
+	/** Writes already rendered, row-major packed RGB pixels into a file, encoding in parallel. */
+	public static void export(int[] pixels, int width, int height, RenderExecutor executor, File file,
+			ImageFormat format, int compressionLevel) throws IOException {
+		write(width, height, executor, file, format, compressionLevel, (top, rows) -> {
+			int[] band = new int[width * rows];
+			System.arraycopy(pixels, top * width, band, 0, band.length);
+			return band;
+		});
+	}
+
+	private static void write(int width, int height, RenderExecutor executor, File file, ImageFormat format,
+			int compressionLevel, BandSource source) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		ImageWriter<?> writer;
+		try {
+			writer = format.createWriter(out, width, height, compressionLevel);
+		} catch (IOException | RuntimeException e) {
+			out.close();
+			throw e;
+		}
+
+		try (writer) {
+			write(width, height, executor, writer, source);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static int bandHeight(int width) {
+		return Math.max(1, BAND_PIXELS / Math.max(1, width));
+	}
+
+	private static <B> void write(int width, int height, RenderExecutor executor, ImageWriter<B> writer,
+			BandSource source) throws IOException {
+		int bandHeight = bandHeight(width);
+		int bands = (height + bandHeight - 1) / bandHeight;
+		int batchSize = executor.getParallelism() * BANDS_PER_THREAD;
+		List<B> batch = new ArrayList<>(Collections.nCopies(batchSize, null));
+
+		for (int first = 0; first < bands; first += batchSize) {
+			int from = first;
+			int count = Math.min(batchSize, bands - first);
+			executor.forEachInOrder(count, i -> {
+				int band = from + i;
+				int top = band * bandHeight;
+				int rows = Math.min(bandHeight, height - top);
+				try {
+					batch.set(i, writer.encode(source.render(top, rows), rows, band == bands - 1));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+
+			for (int i = 0; i < count; i++) {
+				writer.write(batch.get(i));
+				batch.set(i, null);
+			}
+		}
+	}
+
+	/** Produces the packed RGB pixels of rows {@code [top, top + rows)}. */
+	private interface BandSource {
+		int[] render(int top, int rows) throws IOException;
+	}
+}
@@ -0,0 +1,65 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/** File formats a view can be exported to. Everything but PNG is uncompressed, for fast intermediate frames. */
+public enum ImageFormat {
+	PNG("png"),
+	/** Binary portable pixmap (P6). */
+	PPM("ppm"),
+	/** Headerless RGB bytes, row by row from the top. */
+	RAW("rgb"),
+	/** Baseline uncompressed RGB TIFF. Limited to 4 GB of pixel data. */
+	TIFF("tif");
+
+	private final String extension;
+
+	ImageFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Creates a writer for an image of the given size. {@code compressionLevel} is a {@link java.util.zip.Deflater}
+	 * level and only affects PNG.
+	 */
+	public ImageWriter<?> createWriter(OutputStream out, int width, int height, int compressionLevel)
+			throws IOException {
+		if (this == PNG) {
+			return new PngWriter(out, width, height, compressionLevel);
+		}
+		return new UncompressedWriter(this, out, width, height);
+	}
+
+	/** Returns the format with the given name or file extension, ignoring case. */
+	public static ImageFormat forName(String name) {
+		String lowerCase = name.toLowerCase(Locale.ROOT);
+		for (ImageFormat format : values()) {
+			if (format.name().toLowerCase(Locale.ROOT).equals(lowerCase) || format.extension.equals(lowerCase)) {
+				return format;
+			}
+		}
+		if (lowerCase.equals("tiff")) {
+			return TIFF;
+		}
+		throw new IllegalArgumentException("Unknown image format: " + name);
+	}
+
+	/** Returns the format of a file from its extension, or PNG if it has none or an unknown one. */
+	public static ImageFormat forFile(String path) {
+		int dot = path.lastIndexOf('.');
+		if (dot >= 0 && dot > path.lastIndexOf('/') && dot > path.lastIndexOf('\\')) {
+			try {
+				return forName(path.substring(dot + 1));
+			} catch (IllegalArgumentException e) {
+				return PNG;
+			}
+		}
+		return PNG;
+	}
+}
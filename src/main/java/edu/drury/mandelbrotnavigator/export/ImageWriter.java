@@ -0,0 +1,21 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import java.io.IOException;
+
+/**
+ * Writes an image a band of rows at a time. Encoding is split from writing so that bands can be encoded in parallel
+ * and then written in order.
+ *
+ * @param <B> encoded band
+ */
+public interface ImageWriter<B> extends AutoCloseable {
+	/** Encodes {@code rows} rows of packed RGB pixels. Must be thread-safe. */
+	B encode(int[] pixels, int rows, boolean last);
+
+	/** Appends the next band. Bands have to be written in order, from the top of the image. */
+	void write(B band) throws IOException;
+
+	/** Finishes the image and closes the underlying stream. */
+	@Override
+	void close() throws IOException;
+}
@@ -0,0 +1,297 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.math.DoubleDouble;
+import edu.drury.mandelbrotnavigator.render.RenderMode;
+import edu.drury.mandelbrotnavigator.render.View;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * An iteration file written by {@link IterationFileWriter}, memory-mapped and decompressed a band at a time on
+ * demand. Files without an index, left by a writer that did not finish, are scanned instead, and only bands with a
+ * complete, intact record are available.
+ */
+public class IterationFile implements AutoCloseable {
+	/** Largest region mapped at once; records are mapped on their own if they do not fit a region. */
+	private static final long REGION_SIZE = 1 << 28;
+
+	private final FileChannel channel;
+	private final View view;
+	private final int bandHeight;
+	private final long[] recordOffsets;
+	private final long dataEnd;
+	private MappedByteBuffer region;
+	private long regionStart;
+
+	private IterationFile(FileChannel channel, View view, int bandHeight, long[] recordOffsets, long dataEnd) {
+		this.channel = channel;
+		this.view = view;
+		this.bandHeight = bandHeight;
+		this.recordOffsets = recordOffsets;
+		this.dataEnd = dataEnd;
+	}
+
+	public static IterationFile open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return read(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static IterationFile read(FileChannel channel) throws IOException {
+		long size = channel.size();
+		ByteBuffer start = readFully(channel, 0, (int) Math.min(size, IterationFileWriter.MAGIC.length + 4));
+		byte[] magic = new byte[IterationFileWriter.MAGIC.length];
+		if (start.remaining() < magic.length + 4
+				|| !Arrays.equals(readMagic(start, magic), IterationFileWriter.MAGIC)) {
+			throw new IOException("Not an iteration file");
+		}
+		int headerLength = start.getInt();
+		if (headerLength < magic.length + 4 || headerLength > size) {
+			throw new IOException("Corrupt iteration file header");
+		}
+
+		ByteBuffer header = readFully(channel, magic.length + 4, headerLength - magic.length - 4);
+		int width = header.getInt();
+		int height = header.getInt();
+		int iterations = header.getInt();
+		int bandHeight = header.getInt();
+		DoubleDouble x = DoubleDouble.valueOf(header.getDouble(), header.getDouble());
+		DoubleDouble y = DoubleDouble.valueOf(header.getDouble(), header.getDouble());
+		double scale = header.getDouble();
+		Color[] palette = new Color[header.getInt()];
+		for (int i = 0; i < palette.length; i++) {
+			palette[i] = new Color(header.getInt());
+		}
+		int coloring = header.remaining() >= 4 ? header.getInt() : Coloring.BANDED.ordinal();
+		if (width <= 0 || height <= 0 || bandHeight <= 0 || coloring < 0 || coloring >= Coloring.values().length) {
+			throw new IOException("Corrupt iteration file header");
+		}
+		View view = new View(x, y, scale, iterations, palette, width, height, RenderMode.PROGRESSIVE)
+				.withColoring(Coloring.values()[coloring]);
+
+		long[] offsets = new long[(height + bandHeight - 1) / bandHeight];
+		Arrays.fill(offsets, -1);
+		long dataEnd = readIndex(channel, size, bandHeight, offsets);
+		if (dataEnd < 0) {
+			dataEnd = scan(channel, headerLength, size, height, bandHeight, offsets);
+		}
+		return new IterationFile(channel, view, bandHeight, offsets, dataEnd);
+	}
+
+	/** Reads the index into {@code offsets}, returning where the records end, or -1 if there is no valid index. */
+	private static long readIndex(FileChannel channel, long size, int bandHeight, long[] offsets)
+			throws IOException {
+		if (size < IterationFileWriter.END_LENGTH) {
+			return -1;
+		}
+		ByteBuffer end = readFully(channel, size - IterationFileWriter.END_LENGTH, IterationFileWriter.END_LENGTH);
+		long indexOffset = end.getLong();
+		if (end.getInt() != IterationFileWriter.END_MAGIC || indexOffset < 0 || indexOffset > size - 20) {
+			return -1;
+		}
+
+		ByteBuffer start = readFully(channel, indexOffset, 8);
+		int count = start.getInt(4);
+		if (start.getInt(0) != IterationFileWriter.INDEX_MAGIC
+				|| indexOffset + 8 + 8L * count + IterationFileWriter.END_LENGTH != size) {
+			return -1;
+		}
+		ByteBuffer index = readFully(channel, indexOffset + 8, 8 * count);
+		for (int i = 0; i < count; i++) {
+			long offset = index.getLong();
+			ByteBuffer record = readFully(channel, offset, IterationFileWriter.RECORD_HEADER_LENGTH);
+			int band = bandOf(record, bandHeight, offsets.length);
+			if (band < 0) {
+				throw new IOException("Corrupt iteration file index");
+			}
+			offsets[band] = offset;
+		}
+		return indexOffset;
+	}
+
+	/** Finds the intact records after the header, returning where the last one ends. */
+	private static long scan(FileChannel channel, long position, long size, int height, int bandHeight,
+			long[] offsets) throws IOException {
+		while (position + IterationFileWriter.RECORD_HEADER_LENGTH <= size) {
+			ByteBuffer record = readFully(channel, position, IterationFileWriter.RECORD_HEADER_LENGTH);
+			int band = record.getInt(0) == IterationFileWriter.RECORD_MAGIC
+					? bandOf(record, bandHeight, offsets.length)
+					: -1;
+			int rows = record.getInt(8);
+			long length = record.getInt(12) & 0xFFFFFFFFL;
+			long end = position + IterationFileWriter.RECORD_HEADER_LENGTH + length;
+			if (band < 0 || rows != Math.min(bandHeight, height - band * bandHeight) || end > size) {
+				break;
+			}
+
+			CRC32 crc = new CRC32();
+			crc.update(readFully(channel, position + IterationFileWriter.RECORD_HEADER_LENGTH, (int) length));
+			if ((int) crc.getValue() != record.getInt(16)) {
+				break;
+			}
+			offsets[band] = position;
+			position = end;
+		}
+		return position;
+	}
+
+	/** Returns the band a record header is for, or -1 if it does not start a band. */
+	private static int bandOf(ByteBuffer record, int bandHeight, int bands) {
+		int firstRow = record.getInt(4);
+		if (firstRow < 0 || firstRow % bandHeight != 0 || firstRow / bandHeight >= bands) {
+			return -1;
+		}
+		return firstRow / bandHeight;
+	}
+
+	private static byte[] readMagic(ByteBuffer buffer, byte[] magic) {
+		buffer.get(magic);
+		return magic;
+	}
+
+	public View getView() {
+		return view;
+	}
+
+	public int getWidth() {
+		return view.getWidth();
+	}
+
+	public int getHeight() {
+		return view.getHeight();
+	}
+
+	public int getBandHeight() {
+		return bandHeight;
+	}
+
+	/** Tests whether every band of the field has been written. */
+	public boolean isComplete() {
+		for (long offset : recordOffsets) {
+			if (offset < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Tests whether the band that contains {@code row} has been written. */
+	public boolean hasRow(int row) {
+		return recordOffsets[row / bandHeight] >= 0;
+	}
+
+	/** Offset just past the last intact record, where more records can be appended. */
+	long getDataEnd() {
+		return dataEnd;
+	}
+
+	/** Offsets of the record of every band, or -1 for bands that are missing. */
+	long[] getRecordOffsets() {
+		return recordOffsets.clone();
+	}
+
+	/**
+	 * Reads the escape values of rows {@code [firstRow, firstRow + rows)} into {@code values} from {@code offset}
+	 * on. Thread-safe.
+	 */
+	public void readRows(int firstRow, int rows, int[] values, int offset) throws IOException {
+		int width = view.getWidth();
+		int[] band = null;
+		int loaded = -1;
+		for (int row = firstRow; row < firstRow + rows; row++) {
+			int index = row / bandHeight;
+			if (index != loaded) {
+				band = readBand(index);
+				loaded = index;
+			}
+			System.arraycopy(band, (row - index * bandHeight) * width, values, offset + (row - firstRow) * width,
+					width);
+		}
+	}
+
+	private int[] readBand(int index) throws IOException {
+		if (recordOffsets[index] < 0) {
+			throw new IOException("Rows from " + index * bandHeight + " are missing from the iteration file");
+		}
+		ByteBuffer record = map(recordOffsets[index]);
+		int rows = record.getInt(8);
+		int length = record.getInt(12);
+		record.position(IterationFileWriter.RECORD_HEADER_LENGTH)
+				.limit(IterationFileWriter.RECORD_HEADER_LENGTH + length);
+
+		int width = view.getWidth();
+		ByteBuffer raw = ByteBuffer.allocate(4 * width * rows);
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(record);
+			while (raw.hasRemaining() && !inflater.finished()) {
+				if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+					break;
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt band at row " + index * bandHeight, e);
+		} finally {
+			inflater.end();
+		}
+		if (raw.hasRemaining()) {
+			throw new IOException("Truncated band at row " + index * bandHeight);
+		}
+
+		IntBuffer differences = raw.flip().asIntBuffer();
+		int[] values = new int[width * rows];
+		for (int y = 0; y < rows; y++) {
+			int value = 0;
+			for (int x = 0; x < width; x++) {
+				value += differences.get();
+				values[y * width + x] = value;
+			}
+		}
+		return values;
+	}
+
+	/** Returns a buffer positioned at the start of a record, sharing the mapped region that contains it. */
+	private synchronized ByteBuffer map(long offset) throws IOException {
+		ByteBuffer header = readFully(channel, offset, IterationFileWriter.RECORD_HEADER_LENGTH);
+		long end = offset + IterationFileWriter.RECORD_HEADER_LENGTH + (header.getInt(12) & 0xFFFFFFFFL);
+		if (end - offset > REGION_SIZE) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, offset, end - offset);
+		}
+		if (region == null || offset < regionStart || end > regionStart + region.capacity()) {
+			regionStart = offset;
+			region = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(REGION_SIZE, dataEnd - offset));
+		}
+		return region.duplicate().position((int) (offset - regionStart)).slice();
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of iteration file");
+			}
+		}
+		return buffer.flip();
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
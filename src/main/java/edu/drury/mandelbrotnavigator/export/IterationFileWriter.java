@@ -0,0 +1,212 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.render.View;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the escape values of a view to an iteration file, which can be recolored or downsampled later without
+ * computing anything again.
+ * <p>
+ * The file starts with a header describing the view, followed by one record per band of {@link #getBandHeight()}
+ * rows, in any order. Every record names its rows and carries a checksum, so a file whose writer died can still be
+ * read up to its last complete record, and {@link #resume} can carry on writing it. Records are forced to disk every
+ * {@link #SYNC_NANOS} at most. {@link #close()} ends the file with an index of the records. Values are stored as
+ * differences to their left neighbor, deflated. The coloring is the ordinal of the view's {@link Coloring}; files
+ * written before it was added end the header after the palette and are read as banded.
+ *
+ * <pre>
+ * header: "MBFIELD1" headerLength width height iterations bandHeight xHi xLo yHi yLo scale paletteLength palette...
+ *         coloring
+ * record: RECORD_MAGIC firstRow rows compressedLength crc32 compressed...
+ * index:  INDEX_MAGIC recordCount recordOffset... indexOffset END_MAGIC
+ * </pre>
+ */
+public class IterationFileWriter implements AutoCloseable {
+	static final byte[] MAGIC = {'M', 'B', 'F', 'I', 'E', 'L', 'D', '1'};
+	static final int RECORD_MAGIC = 0x42414E44; // "BAND"
+	static final int INDEX_MAGIC = 0x494E4458; // "INDX"
+	static final int END_MAGIC = 0x4D424958; // "MBIX"
+	static final int RECORD_HEADER_LENGTH = 20;
+	static final int END_LENGTH = 12;
+	/** Longest time written records may stay in the operating system's cache only. */
+	private static final long SYNC_NANOS = 10_000_000_000L;
+
+	private final FileChannel channel;
+	private final int width;
+	private final int height;
+	private final int bandHeight;
+	private final List<Long> recordOffsets = new ArrayList<>();
+	private long lastSync = System.nanoTime();
+
+	/** Creates or replaces the file at {@code path} for the escape values of {@code view}. */
+	public IterationFileWriter(Path path, View view, int bandHeight) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.width = view.getWidth();
+		this.height = view.getHeight();
+		this.bandHeight = bandHeight;
+
+		try {
+			ByteBuffer header = header(view, bandHeight);
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private IterationFileWriter(FileChannel channel, View view, int bandHeight) {
+		this.channel = channel;
+		this.width = view.getWidth();
+		this.height = view.getHeight();
+		this.bandHeight = bandHeight;
+	}
+
+	/**
+	 * Reopens the file {@code checkpoint} was read from to write the bands it is missing. Anything after its last
+	 * intact record is cut off first, and the bands it has are kept.
+	 */
+	public static IterationFileWriter resume(IterationFile checkpoint, Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+		try {
+			channel.truncate(checkpoint.getDataEnd());
+			channel.position(checkpoint.getDataEnd());
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		IterationFileWriter writer = new IterationFileWriter(channel, checkpoint.getView(), checkpoint.getBandHeight());
+		for (long offset : checkpoint.getRecordOffsets()) {
+			if (offset >= 0) {
+				writer.recordOffsets.add(offset);
+			}
+		}
+		return writer;
+	}
+
+	public int getBandHeight() {
+		return bandHeight;
+	}
+
+	/**
+	 * Compresses rows {@code [firstRow, firstRow + rows)} from {@code values}, which holds them starting at
+	 * {@code offset}. Thread-safe. {@code firstRow} has to be the first row of a band.
+	 */
+	public Band encode(int firstRow, int rows, int[] values, int offset) {
+		if (firstRow % bandHeight != 0 || rows != Math.min(bandHeight, height - firstRow)) {
+			throw new IllegalArgumentException("Rows " + firstRow + " to " + (firstRow + rows) + " are not a band");
+		}
+
+		ByteBuffer raw = ByteBuffer.allocate(4 * width * rows);
+		for (int y = 0; y < rows; y++) {
+			int previous = 0;
+			for (int x = 0; x < width; x++) {
+				int value = values[offset + y * width + x];
+				raw.putInt(value - previous);
+				previous = value;
+			}
+		}
+
+		Deflater deflater = new Deflater();
+		deflater.setInput(raw.array());
+		deflater.finish();
+		byte[] compressed = new byte[Math.max(64, raw.capacity() / 4)];
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == compressed.length) {
+				compressed = Arrays.copyOf(compressed, compressed.length * 2);
+			}
+			length += deflater.deflate(compressed, length, compressed.length - length);
+		}
+		deflater.end();
+
+		CRC32 crc = new CRC32();
+		crc.update(compressed, 0, length);
+
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + length);
+		record.putInt(RECORD_MAGIC).putInt(firstRow).putInt(rows).putInt(length).putInt((int) crc.getValue());
+		record.put(compressed, 0, length);
+		record.flip();
+		return new Band(record);
+	}
+
+	/** Appends an encoded band. Bands may be written in any order, and each at most once. */
+	public synchronized void write(Band band) throws IOException {
+		recordOffsets.add(channel.position());
+		while (band.record.hasRemaining()) {
+			channel.write(band.record);
+		}
+		if (System.nanoTime() - lastSync > SYNC_NANOS) {
+			channel.force(false);
+			lastSync = System.nanoTime();
+		}
+	}
+
+	/** Writes the index of all records and closes the file. */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			long indexOffset = channel.position();
+			ByteBuffer index = ByteBuffer.allocate(8 + 8 * recordOffsets.size() + END_LENGTH);
+			index.putInt(INDEX_MAGIC).putInt(recordOffsets.size());
+			for (long offset : recordOffsets) {
+				index.putLong(offset);
+			}
+			index.putLong(indexOffset).putInt(END_MAGIC);
+			index.flip();
+			while (index.hasRemaining()) {
+				channel.write(index);
+			}
+			channel.force(false);
+		} finally {
+			channel.close();
+		}
+	}
+
+	private static ByteBuffer header(View view, int bandHeight) {
+		Color[] palette = view.getPalette();
+		int length = MAGIC.length + 4 * 5 + 8 * 5 + 4 + 4 * palette.length + 4;
+		ByteBuffer header = ByteBuffer.allocate(length);
+		header.put(MAGIC)
+				.putInt(length)
+				.putInt(view.getWidth())
+				.putInt(view.getHeight())
+				.putInt(view.getIterations())
+				.putInt(bandHeight)
+				.putDouble(view.getX().hi())
+				.putDouble(view.getX().lo())
+				.putDouble(view.getY().hi())
+				.putDouble(view.getY().lo())
+				.putDouble(view.getScale())
+				.putInt(palette.length);
+		for (Color color : palette) {
+			header.putInt(color.getRGB());
+		}
+		header.putInt(view.getColoring().ordinal());
+		header.flip();
+		return header;
+	}
+
+	/** A compressed record, ready to be written. */
+	public static final class Band {
+		private final ByteBuffer record;
+
+		private Band(ByteBuffer record) {
+			this.record = record;
+		}
+	}
+}
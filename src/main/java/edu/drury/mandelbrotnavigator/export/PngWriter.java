@@ -0,0 +1,172 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an 8-bit RGB PNG one band of rows at a time. Bands are compressed independently, so they can be encoded in
+ * parallel, and their raw deflate streams are joined into the single zlib stream PNG requires: every band but the
+ * last ends on a byte boundary with a sync flush, and the Adler-32 checksums of the bands are combined.
+ */
+public class PngWriter implements ImageWriter<PngWriter.Band> {
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+	private static final int ADLER_BASE = 65521;
+
+	private final DataOutputStream out;
+	private final int width;
+	private final int height;
+	private final int compressionLevel;
+	private int rowsWritten;
+	private long adler = 1;
+
+	/** Creates a writer that compresses at a {@link Deflater} level from 0 to 9, or the default level for -1. */
+	public PngWriter(OutputStream out, int width, int height, int compressionLevel) throws IOException {
+		this.out = new DataOutputStream(out);
+		this.width = width;
+		this.height = height;
+		this.compressionLevel = compressionLevel;
+
+		this.out.write(SIGNATURE);
+		ByteBuffer header = ByteBuffer.allocate(13)
+				.putInt(width)
+				.putInt(height)
+				.put((byte) 8) // bit depth
+				.put((byte) 2) // color type: RGB
+				.put((byte) 0) // compression method
+				.put((byte) 0) // filter method
+				.put((byte) 0); // interlace method
+		writeChunk("IHDR", header.array(), header.capacity());
+		// The zlib stream header: deflate with a 32K window.
+		writeChunk("IDAT", new byte[] {0x78, (byte) 0x9C}, 2);
+	}
+
+	/**
+	 * Compresses {@code rows} rows of packed RGB pixels. Thread-safe, since it touches no writer state;
+	 * {@code last} must be set for the band that ends the image.
+	 */
+	@Override
+	public Band encode(int[] pixels, int rows, boolean last) {
+		// No filter: the flat areas and exactly repeating bands of color of these images compress better unfiltered
+		// than with filters chosen per row.
+		byte[] scanlines = new byte[rows * (1 + 3 * width)];
+		int position = 0;
+		for (int y = 0; y < rows; y++) {
+			scanlines[position++] = 0;
+			for (int x = 0; x < width; x++) {
+				int color = pixels[y * width + x];
+				scanlines[position++] = (byte) (color >> 16);
+				scanlines[position++] = (byte) (color >> 8);
+				scanlines[position++] = (byte) color;
+			}
+		}
+
+		Adler32 checksum = new Adler32();
+		checksum.update(scanlines, 0, scanlines.length);
+
+		Deflater deflater = new Deflater(compressionLevel, true);
+		deflater.setInput(scanlines);
+		if (last) {
+			deflater.finish();
+		}
+
+		byte[] compressed = new byte[Math.max(64, scanlines.length / 4)];
+		int length = 0;
+		while (true) {
+			if (length == compressed.length) {
+				compressed = Arrays.copyOf(compressed, compressed.length * 2);
+			}
+			int space = compressed.length - length;
+			length += deflater.deflate(compressed, length, space, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+			// A sync flush is complete once all input is taken and it no longer fills the space it was given.
+			if (last ? deflater.finished() : deflater.needsInput() && compressed.length - length > 0) {
+				break;
+			}
+		}
+		deflater.end();
+
+		return new Band(rows, compressed, length, checksum.getValue(), scanlines.length);
+	}
+
+	@Override
+	public void write(Band band) throws IOException {
+		if (rowsWritten + band.rows > height) {
+			throw new IllegalStateException("More rows than the image height of " + height);
+		}
+		rowsWritten += band.rows;
+		writeChunk("IDAT", band.data, band.length);
+		adler = combineAdler(adler, band.adler, band.rawLength);
+	}
+
+	/** Ends the zlib stream and the image, and closes the underlying stream. */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (rowsWritten != height) {
+				throw new IllegalStateException(
+						"Wrote " + rowsWritten + " rows of an image " + width + " x " + height);
+			}
+			writeChunk("IDAT", ByteBuffer.allocate(4).putInt((int) adler).array(), 4);
+			writeChunk("IEND", new byte[0], 0);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void writeChunk(String type, byte[] data, int length) throws IOException {
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+	/** Returns the Adler-32 of two byte sequences joined, from their checksums and the second one's length. */
+	private static long combineAdler(long first, long second, long secondLength) {
+		long remainder = secondLength % ADLER_BASE;
+		long sum1 = first & 0xFFFF;
+		long sum2 = remainder * sum1 % ADLER_BASE;
+		sum1 += (second & 0xFFFF) + ADLER_BASE - 1;
+		sum2 += ((first >> 16) & 0xFFFF) + ((second >> 16) & 0xFFFF) + ADLER_BASE - remainder;
+		if (sum1 >= ADLER_BASE) {
+			sum1 -= ADLER_BASE;
+		}
+		if (sum1 >= ADLER_BASE) {
+			sum1 -= ADLER_BASE;
+		}
+		if (sum2 >= 2L * ADLER_BASE) {
+			sum2 -= 2L * ADLER_BASE;
+		}
+		if (sum2 >= ADLER_BASE) {
+			sum2 -= ADLER_BASE;
+		}
+		return sum1 | sum2 << 16;
+	}
+
+	/** Compressed rows, ready to be written. */
+	public static final class Band {
+		private final int rows;
+		private final byte[] data;
+		private final int length;
+		private final long adler;
+		private final long rawLength;
+
+		private Band(int rows, byte[] data, int length, long adler, long rawLength) {
+			this.rows = rows;
+			this.data = data;
+			this.length = length;
+			this.adler = adler;
+			this.rawLength = rawLength;
+		}
+	}
+}
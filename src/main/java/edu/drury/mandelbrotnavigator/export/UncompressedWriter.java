@@ -0,0 +1,84 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/** Writes 8-bit RGB pixels without compression, behind the header of a PPM or TIFF file or none at all. */
+class UncompressedWriter implements ImageWriter<byte[]> {
+	/** Size of the TIFF header, its ten-entry image file directory and the bits-per-sample values. */
+	private static final int TIFF_DATA_OFFSET = 8 + 2 + 10 * 12 + 4 + 6;
+
+	private final OutputStream out;
+	private final int width;
+
+	UncompressedWriter(ImageFormat format, OutputStream out, int width, int height) throws IOException {
+		this.out = out;
+		this.width = width;
+
+		if (format == ImageFormat.PPM) {
+			out.write(("P6\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+		} else if (format == ImageFormat.TIFF) {
+			out.write(tiffHeader(width, height));
+		}
+	}
+
+	@Override
+	public byte[] encode(int[] pixels, int rows, boolean last) {
+		byte[] bytes = new byte[3 * width * rows];
+		for (int i = 0; i < width * rows; i++) {
+			int color = pixels[i];
+			bytes[3 * i] = (byte) (color >> 16);
+			bytes[3 * i + 1] = (byte) (color >> 8);
+			bytes[3 * i + 2] = (byte) color;
+		}
+		return bytes;
+	}
+
+	@Override
+	public void write(byte[] band) throws IOException {
+		out.write(band);
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/** Returns a little-endian TIFF header whose single strip holds the whole image right after it. */
+	private static byte[] tiffHeader(int width, int height) {
+		long byteCount = 3L * width * height;
+		if (TIFF_DATA_OFFSET + byteCount > 0xFFFFFFFFL) {
+			throw new IllegalArgumentException("Image too large for TIFF: " + width + " x " + height);
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(TIFF_DATA_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+		header.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+		header.putShort((short) 10);
+		putEntry(header, 256, 4, 1, width); // ImageWidth
+		putEntry(header, 257, 4, 1, height); // ImageLength
+		putEntry(header, 258, 3, 3, TIFF_DATA_OFFSET - 6); // BitsPerSample, stored after the directory
+		putEntry(header, 259, 3, 1, 1); // Compression: none
+		putEntry(header, 262, 3, 1, 2); // PhotometricInterpretation: RGB
+		putEntry(header, 273, 4, 1, TIFF_DATA_OFFSET); // StripOffsets
+		putEntry(header, 277, 3, 1, 3); // SamplesPerPixel
+		putEntry(header, 278, 4, 1, height); // RowsPerStrip
+		putEntry(header, 279, 4, 1, (int) byteCount); // StripByteCounts
+		putEntry(header, 284, 3, 1, 1); // PlanarConfiguration: chunky
+		header.putInt(0); // no further directories
+		header.putShort((short) 8).putShort((short) 8).putShort((short) 8);
+		return header.array();
+	}
+
+	/** Puts a directory entry whose single value, or offset to its values, is {@code value}. */
+	private static void putEntry(ByteBuffer header, int tag, int type, int count, int value) {
+		header.putShort((short) tag).putShort((short) type).putInt(count);
+		if (type == 3 && count == 1) {
+			header.putShort((short) value).putShort((short) 0);
+		} else {
+			header.putInt(value);
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package edu.drury.mandelbrotnavigator.export;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.color.ColorTable;
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.math.DoubleDouble;
+import edu.drury.mandelbrotnavigator.math.ReferenceOrbit;
+import edu.drury.mandelbrotnavigator.render.FrameSampler;
+import edu.drury.mandelbrotnavigator.render.Precision;
+import edu.drury.mandelbrotnavigator.render.RenderExecutor;
+import edu.drury.mandelbrotnavigator.render.View;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Frames of a zoom from a start view to a target center and scale, spaced evenly in the logarithm of the scale. The
+ * path is a zoom about one fixed point, chosen so that the last frame is exactly the target, which makes every frame
+ * of a zoom-in lie within the frames before it.
+ * <p>
+ * Rendering uses that: keyframes are rendered at twice the frame resolution, and the frames after a keyframe are
+ * resampled from it for as long as they still have at least one keyframe pixel per frame pixel. A zoom-out is the
+ * same zoom run backwards, so it is rendered from the target back to the start. A frame whose keyframe would not
+ * cover the next one, as in a pan, is rendered directly instead. Deep frames share one reference orbit at the
+ * target, and frames are encoded and written on a separate thread while the next ones are computed.
+ */
+public class ZoomSequence {
+	private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+	/** Frames that may wait to be written before rendering pauses. */
+	private static final int MAX_PENDING_FRAMES = 2;
+
+	private final View start;
+	private final BigDecimal startX;
+	private final BigDecimal startY;
+	private final BigDecimal fixedX;
+	private final BigDecimal fixedY;
+	private final DoubleDouble targetX;
+	private final DoubleDouble targetY;
+	private final double targetScale;
+	private final int frames;
+
+	/**
+	 * Creates a sequence of {@code frames} frames. All frames have the size, iterations, palette, coloring and mode of
+	 * {@code start}, which must be banded: keyframes are colored before they are resampled, so each would need its
+	 * own equalized palette and smooth frames would flicker.
+	 */
+	public ZoomSequence(View start, DoubleDouble targetX, DoubleDouble targetY, double targetScale, int frames) {
+		if (frames < 2) {
+			throw new IllegalArgumentException("A zoom sequence needs at least two frames");
+		}
+		if (start.getColoring() != Coloring.BANDED) {
+			throw new IllegalArgumentException("Zoom sequences only support banded coloring");
+		}
+		this.start = start;
+		this.startX = start.getX().toBigDecimal();
+		this.startY = start.getY().toBigDecimal();
+		this.targetX = targetX;
+		this.targetY = targetY;
+		this.targetScale = targetScale;
+		this.frames = frames;
+
+		// Fixed point F of the zoom: F + (start - F) * ratio = target, with ratio the overall change of scale.
+		BigDecimal ratio = new BigDecimal(targetScale / start.getScale());
+		if (ratio.compareTo(BigDecimal.ONE) == 0) {
+			fixedX = null;
+			fixedY = null;
+		} else {
+			BigDecimal denominator = BigDecimal.ONE.subtract(ratio);
+			fixedX = targetX.toBigDecimal().subtract(startX.multiply(ratio)).divide(denominator, MATH_CONTEXT);
+			fixedY = targetY.toBigDecimal().subtract(startY.multiply(ratio)).divide(denominator, MATH_CONTEXT);
+		}
+	}
+
+	/** Returns the same sequence with every frame iterated up to {@code iterations}. */
+	public ZoomSequence withIterations(int iterations) {
+		return new ZoomSequence(start.withIterations(iterations), targetX, targetY, targetScale, frames);
+	}
+
+	public int getFrameCount() {
+		return frames;
+	}
+
+	/** Returns frame {@code index}, where frame 0 is the start view and the last frame the target. */
+	public View getFrame(int index) {
+		return getFrame(index, start.getWidth(), start.getHeight());
+	}
+
+	/**
+	 * Renders every frame into {@code directory} as {@code frame-00000.png} and so on, reporting the index of each
+	 * frame written to {@code progress}. Frames of a zoom-out are written last to first.
+	 */
+	public void render(RenderExecutor executor, File directory, ImageFormat format, int compressionLevel,
+			IntConsumer progress) throws IOException {
+		int width = start.getWidth();
+		int height = start.getHeight();
+		ColorTable colors = new ColorGenerator(start.getPalette()).getColorTable(start.getIterations());
+		ReferenceOrbit orbit = null;
+
+		ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "frame-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Deque<Future<?>> pending = new ArrayDeque<>();
+
+		try {
+			boolean zoomOut = targetScale > start.getScale();
+			View key = null;
+			int[] keyPixels = null;
+
+			for (int i = 0; i < frames; i++) {
+				int index = zoomOut ? frames - 1 - i : i;
+				View frame = getFrame(index);
+				if (key == null || !covers(key, frame)) {
+					key = getFrame(index, 2 * width, 2 * height);
+					if (i == frames - 1 || !covers(key, getFrame(zoomOut ? index - 1 : index + 1))) {
+						key = frame;
+					}
+					if (orbit == null && key.getPrecision() == Precision.PERTURBATION) {
+						orbit = ReferenceOrbit.compute(targetX.toBigDecimal(), targetY.toBigDecimal(),
+								ReferenceOrbit.precisionFor(Math.min(targetScale, start.getScale())),
+								start.getIterations(), () -> false);
+					}
+					keyPixels = renderKeyframe(key, orbit, colors, executor);
+				}
+
+				int[] pixels = resample(key, keyPixels, frame, executor);
+				File file = new File(directory,
+						String.format(Locale.ROOT, "frame-%05d.%s", index, format.getExtension()));
+				int frameIndex = index;
+				pending.add(writer.submit(() -> {
+					ImageExporter.export(pixels, width, height, executor, file, format, compressionLevel);
+					progress.accept(frameIndex);
+					return null;
+				}));
+
+				while (pending.size() > MAX_PENDING_FRAMES) {
+					await(pending.poll());
+				}
+			}
+
+			while (!pending.isEmpty()) {
+				await(pending.poll());
+			}
+		} finally {
+			writer.shutdownNow();
+		}
+	}
+
+	private View getFrame(int index, int width, int height) {
+		double t = (double) index / (frames - 1);
+		double scale = start.getScale() * Math.pow(targetScale / start.getScale(), t);
+		DoubleDouble x;
+		DoubleDouble y;
+
+		if (index == frames - 1) {
+			x = targetX;
+			y = targetY;
+		} else if (fixedX == null) {
+			BigDecimal fraction = new BigDecimal(t);
+			x = DoubleDouble.valueOf(startX.add(targetX.toBigDecimal().subtract(startX).multiply(fraction)));
+			y = DoubleDouble.valueOf(startY.add(targetY.toBigDecimal().subtract(startY).multiply(fraction)));
+		} else {
+			BigDecimal ratio = new BigDecimal(scale / start.getScale());
+			x = DoubleDouble.valueOf(fixedX.add(startX.subtract(fixedX).multiply(ratio), MATH_CONTEXT));
+			y = DoubleDouble.valueOf(fixedY.add(startY.subtract(fixedY).multiply(ratio), MATH_CONTEXT));
+		}
+
+		return new View(x, y, scale, start.getIterations(), start.getPalette(), width, height, start.getMode())
+				.withColoring(start.getColoring());
+	}
+
+	/** Whether {@code frame} lies within {@code key} and has no more pixels than it across the same area. */
+	private static boolean covers(View key, View frame) {
+		double ratio = frame.getStep() / key.getStep();
+		if (ratio < 1) {
+			return false;
+		}
+		double centerX = key.getWidth() / 2.0 + offset(frame.getX(), key.getX()) / key.getStep();
+		double centerY = key.getHeight() / 2.0 - offset(frame.getY(), key.getY()) / key.getStep();
+		double halfWidth = frame.getWidth() / 2.0 * ratio;
+		double halfHeight = frame.getHeight() / 2.0 * ratio;
+		return centerX - halfWidth >= 0 && centerX + halfWidth <= key.getWidth()
+				&& centerY - halfHeight >= 0 && centerY + halfHeight <= key.getHeight();
+	}
+
+	private static int[] renderKeyframe(View key, ReferenceOrbit orbit, ColorTable colors, RenderExecutor executor) {
+		FrameSampler sampler = orbit != null && key.getPrecision() == Precision.PERTURBATION
+				? FrameSampler.create(key, orbit)
+				: FrameSampler.create(key);
+		int width = key.getWidth();
+		int[] pixels = new int[width * key.getHeight()];
+
+		executor.forEachRow(0, key.getHeight(), y -> {
+			sampler.computeRow(0.5, 1, y + 0.5, pixels, y * width, width);
+			for (int x = 0; x < width; x++) {
+				pixels[y * width + x] = colors.colorOf(pixels[y * width + x]);
+			}
+		});
+		return pixels;
+	}
+
+	/** Samples {@code frame} from the keyframe's pixels with bilinear interpolation. */
+	private static int[] resample(View key, int[] keyPixels, View frame, RenderExecutor executor) {
+		int width = frame.getWidth();
+		double ratio = frame.getStep() / key.getStep();
+		double left = key.getWidth() / 2.0 + offset(frame.getX(), key.getX()) / key.getStep() - width / 2.0 * ratio;
+		double top = key.getHeight() / 2.0 - offset(frame.getY(), key.getY()) / key.getStep()
+				- frame.getHeight() / 2.0 * ratio;
+		int[] pixels = new int[width * frame.getHeight()];
+
+		executor.forEachRow(0, frame.getHeight(), y -> {
+			double keyY = top + (y + 0.5) * ratio - 0.5;
+			for (int x = 0; x < width; x++) {
+				pixels[y * width + x] = interpolate(key, keyPixels, left + (x + 0.5) * ratio - 0.5, keyY);
+			}
+		});
+		return pixels;
+	}
+
+	private static int interpolate(View key, int[] pixels, double x, double y) {
+		int width = key.getWidth();
+		int x0 = Math.max(0, Math.min(width - 2, (int) Math.floor(x)));
+		int y0 = Math.max(0, Math.min(key.getHeight() - 2, (int) Math.floor(y)));
+		double fx = Math.max(0, Math.min(1, x - x0));
+		double fy = Math.max(0, Math.min(1, y - y0));
+
+		int topLeft = pixels[y0 * width + x0];
+		int topRight = pixels[y0 * width + x0 + 1];
+		int bottomLeft = pixels[(y0 + 1) * width + x0];
+		int bottomRight = pixels[(y0 + 1) * width + x0 + 1];
+
+		int color = 0xFF000000;
+		for (int shift = 0; shift <= 16; shift += 8) {
+			double upper = (topLeft >> shift & 0xFF) * (1 - fx) + (topRight >> shift & 0xFF) * fx;
+			double lower = (bottomLeft >> shift & 0xFF) * (1 - fx) + (bottomRight >> shift & 0xFF) * fx;
+			color |= (int) Math.round(upper * (1 - fy) + lower * fy) << shift;
+		}
+		return color;
+	}
+
+	private static double offset(DoubleDouble a, DoubleDouble b) {
+		return a.subtract(b).doubleValue();
+	}
+
+	private static void await(Future<?> future) throws IOException {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing frames", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package edu.drury.mandelbrotnavigator.math;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Immutable unevaluated sum {@code hi + lo} of two doubles with {@code |lo| <= ulp(hi) / 2}, giving about 32
+ * significant decimal digits.
+ */
+public final class DoubleDouble implements Comparable<DoubleDouble> {
+	public static final DoubleDouble ZERO = new DoubleDouble(0, 0);
+
+	private final double hi;
+	private final double lo;
+
+	private DoubleDouble(double hi, double lo) {
+		this.hi = hi;
+		this.lo = lo;
+	}
+
+	public static DoubleDouble valueOf(double value) {
+		return new DoubleDouble(value, 0);
+	}
+
+	/** Normalizes an arbitrary pair of doubles into a double-double. */
+	public static DoubleDouble valueOf(double hi, double lo) {
+		double sum = hi + lo;
+		return new DoubleDouble(sum, lo - (sum - hi));
+	}
+
+	public static DoubleDouble valueOf(BigDecimal value) {
+		double hi = value.doubleValue();
+		return new DoubleDouble(hi, value.subtract(new BigDecimal(hi)).doubleValue());
+	}
+
+	public double hi() {
+		return hi;
+	}
+
+	public double lo() {
+		return lo;
+	}
+
+	public double doubleValue() {
+		return hi;
+	}
+
+	public BigDecimal toBigDecimal() {
+		return new BigDecimal(hi).add(new BigDecimal(lo));
+	}
+
+	public DoubleDouble add(DoubleDouble value) {
+		double sum = hi + value.hi;
+		double virtual = sum - hi;
+		double error = (hi - (sum - virtual)) + (value.hi - virtual) + lo + value.lo;
+		return valueOf(sum, error);
+	}
+
+	public DoubleDouble add(double value) {
+		return add(valueOf(value));
+	}
+
+	public DoubleDouble subtract(DoubleDouble value) {
+		return add(value.negate());
+	}
+
+	public DoubleDouble subtract(double value) {
+		return add(-value);
+	}
+
+	public DoubleDouble negate() {
+		return new DoubleDouble(-hi, -lo);
+	}
+
+	public DoubleDouble multiply(DoubleDouble value) {
+		double product = hi * value.hi;
+		double error = Math.fma(hi, value.hi, -product) + (hi * value.lo + lo * value.hi);
+		return valueOf(product, error);
+	}
+
+	@Override
+	public int compareTo(DoubleDouble value) {
+		int compare = Double.compare(hi, value.hi);
+		return compare != 0 ? compare : Double.compare(lo, value.lo);
+	}
+
+	@Override
+	public String toString() {
+		return toBigDecimal().round(MathContext.DECIMAL128).stripTrailingZeros().toPlainString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		DoubleDouble that = (DoubleDouble) o;
+		return Double.compare(that.hi, hi) == 0 && Double.compare(that.lo, lo) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Double.hashCode(hi) + Double.hashCode(lo);
+	}
+}
@@ -0,0 +1,18 @@
+package edu.drury.mandelbrotnavigator.math;
+
+/** Computes escape values for runs of horizontally adjacent points. */
+public interface EscapeTimeKernel {
+	/**
+	 * Writes the escape value of the point {@code (a + i * step, b)} to {@code values[offset + i]} for every
+	 * {@code i} in {@code [0, count)}. Values follow {@link MandelbrotMath#getMandelbrotValue(double, double, int)}.
+	 */
+	void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count);
+
+	/**
+	 * Same as {@link #computeRow(double, double, double, int, int[], int, int)}, and writes the fraction
+	 * {@link MandelbrotMath#getFraction(double, double, double, double)} of every point that escaped to
+	 * {@code fractions[offset + i]}, and 0 for every point that did not.
+	 */
+	void computeRow(double a, double step, double b, int iterations, int[] values, float[] fractions, int offset,
+			int count);
+}
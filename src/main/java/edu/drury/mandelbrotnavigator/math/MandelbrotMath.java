@@ -1,12 +1,63 @@
 package edu.drury.mandelbrotnavigator.math;
 
 public class MandelbrotMath {
+	/**
+	 * Distance below which an orbit is considered to have returned to a saved point. Saved points are taken at
+	 * doubling intervals (Brent's cycle detection), so cycles of any period are eventually caught.
+	 */
+	public static final double PERIODICITY_EPSILON = 1e-15;
+	/**
+	 * Iterations an escaped orbit is continued by before its normalized iteration count is taken, which makes the
+	 * count continuous despite the small escape radius.
+	 */
+	private static final int FRACTION_ITERATIONS = 4;
+	private static final double LN_2 = Math.log(2);
+
+	private static final ResumableKernel KERNEL = createKernel();
+
 	/** Prevent creating instances. */
 	private MandelbrotMath() {}
 
+	/**
+	 * Returns the fastest available row kernel: the SIMD kernel when the {@code jdk.incubator.vector} module is
+	 * resolved and {@code mandelbrot.vector} is not {@code false}, otherwise the scalar kernel.
+	 */
+	public static ResumableKernel getKernel() {
+		return KERNEL;
+	}
+
+	public static ResumableKernel getScalarKernel() {
+		return new ScalarKernel();
+	}
+
+	private static ResumableKernel createKernel() {
+		if (Boolean.parseBoolean(System.getProperty("mandelbrot.vector", "true"))
+				&& ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return (ResumableKernel) Class.forName(MandelbrotMath.class.getPackageName() + ".VectorKernel")
+						.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError ignored) {
+				// Fall through to the scalar kernel
+			}
+		}
+		return new ScalarKernel();
+	}
+
+	/**
+	 * Returns the iteration at which the orbit of {@code a + bi} escaped, or {@code -1} if it did not escape. Points in
+	 * the main cardioid or the period-2 bulb are rejected without iterating, and orbits that return to within
+	 * {@link #PERIODICITY_EPSILON} of a saved point are treated as periodic and stop early.
+	 */
 	public static int getMandelbrotValue(double a, double b, int iterations) {
+		if (isInCardioidOrBulb(a, b)) {
+			return -1;
+		}
+
 		double x = a;
 		double y = b;
+		double savedX = x;
+		double savedY = y;
+		int nextSave = 2;
 
 		for (int i = 0; i < iterations; i++) {
 			double px = x;
@@ -15,8 +66,83 @@ public class MandelbrotMath {
 			if (x * x + y * y > 4) {
 				return i;
 			}
+			if (Math.abs(x - savedX) < PERIODICITY_EPSILON && Math.abs(y - savedY) < PERIODICITY_EPSILON) {
+				return -1;
+			}
+			if (i == nextSave) {
+				savedX = x;
+				savedY = y;
+				nextSave <<= 1;
+			}
 		}
 
 		return -1;
 	}
+
+	/**
+	 * Continues the orbit of {@code a + bi}, left at {@code (zx[index], zy[index])} after {@code from} iterations, up
+	 * to {@code iterations} and returns its escape value. Leaves the orbit where it stopped or escaped, or at NaN if it
+	 * turned out to be periodic; see {@link ResumableKernel}.
+	 */
+	public static int continueMandelbrotValue(double a, double b, double[] zx, double[] zy, int index, int from,
+			int iterations) {
+		double x = zx[index];
+		double y = zy[index];
+		double savedX = x;
+		double savedY = y;
+		int nextSave = Math.max(2, 2 * from);
+
+		for (int i = from; i < iterations; i++) {
+			double px = x;
+			x = px * px - y * y + a;
+			y = (px + px) * y + b;
+			if (x * x + y * y > 4) {
+				zx[index] = x;
+				zy[index] = y;
+				return i;
+			}
+			if (Math.abs(x - savedX) < PERIODICITY_EPSILON && Math.abs(y - savedY) < PERIODICITY_EPSILON) {
+				zx[index] = Double.NaN;
+				zy[index] = Double.NaN;
+				return -1;
+			}
+			if (i == nextSave) {
+				savedX = x;
+				savedY = y;
+				nextSave <<= 1;
+			}
+		}
+
+		zx[index] = x;
+		zy[index] = y;
+		return -1;
+	}
+
+	/**
+	 * Returns what the normalized iteration count {@code n + 1 - log2(log2 |z|)} of the point {@code a + bi}, whose
+	 * orbit first left the escape radius at {@code x + yi}, adds to its escape value. The sum varies continuously
+	 * across the boundaries between escape values. Since the escape radius is small, the fraction is only roughly
+	 * between 0 and 1, and is clamped to {@code [-1, 2]} for points far outside the set.
+	 */
+	public static float getFraction(double x, double y, double a, double b) {
+		for (int i = 0; i < FRACTION_ITERATIONS; i++) {
+			double px = x;
+			x = px * px - y * y + a;
+			y = (px + px) * y + b;
+		}
+		double log2Modulus = Math.log(x * x + y * y) / (2 * LN_2);
+		double fraction = FRACTION_ITERATIONS + 1 - Math.log(log2Modulus) / LN_2;
+		return (float) Math.max(-1, Math.min(fraction, 2));
+	}
+
+	/** Tests membership of the main cardioid and the period-2 bulb, both of which lie entirely inside the set. */
+	public static boolean isInCardioidOrBulb(double a, double b) {
+		double shifted = a - 0.25;
+		double q = shifted * shifted + b * b;
+		if (q * (q + shifted) <= 0.25 * b * b) {
+			return true;
+		}
+		double plusOne = a + 1;
+		return plusOne * plusOne + b * b <= 0.0625;
+	}
 }
@@ -0,0 +1,122 @@
+package edu.drury.mandelbrotnavigator.math;
+
+/**
+ * Evaluates points as double precision offsets from a {@link ReferenceOrbit}. Coordinates passed to
+ * {@link #computeRow(double, double, double, int, int[], int, int)} are relative to the orbit's center, so they stay
+ * accurate at scales far below what absolute doubles can resolve.
+ * <p>
+ * A pixel's offset {@code d} from the reference follows {@code d' = 2Zd + d^2 + dc}. Whenever the full value
+ * {@code Z + d} gets smaller than {@code d} (where the offset would lose precision and glitch) or the reference orbit
+ * runs out, the pixel is rebased onto the start of the orbit with {@code d = Z + d}.
+ * <p>
+ * With a {@link SeriesApproximation}, pixels skip the iterations it covers and start from the evaluated series.
+ */
+public final class PerturbationKernel implements EscapeTimeKernel {
+	private final ReferenceOrbit orbit;
+	private final SeriesApproximation series;
+
+	public PerturbationKernel(ReferenceOrbit orbit) {
+		this(orbit, null);
+	}
+
+	public PerturbationKernel(ReferenceOrbit orbit, SeriesApproximation series) {
+		this.orbit = orbit;
+		this.series = series;
+	}
+
+	@Override
+	public void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count) {
+		double[] delta = new double[2];
+		for (int i = 0; i < count; i++) {
+			values[offset + i] = getValue(a + i * step, b, iterations, delta);
+		}
+	}
+
+	/**
+	 * Takes the fractions in doubles at the reference point plus the offset, which is far more than precise enough
+	 * once an orbit has escaped.
+	 */
+	@Override
+	public void computeRow(double a, double step, double b, int iterations, int[] values, float[] fractions,
+			int offset, int count) {
+		double[] delta = new double[2];
+		for (int i = 0; i < count; i++) {
+			int value = getValue(a + i * step, b, iterations, delta);
+			values[offset + i] = value;
+			fractions[offset + i] = value >= 0
+					? MandelbrotMath.getFraction(delta[0], delta[1], orbit.re(1) + a + i * step, orbit.im(1) + b)
+					: 0;
+		}
+	}
+
+	/** Returns the escape value of the point at offset {@code (dcx, dcy)} from the reference center. */
+	public int getValue(double dcx, double dcy, int iterations) {
+		return getValue(dcx, dcy, iterations, new double[2]);
+	}
+
+	/**
+	 * Uses {@code delta} as scratch space and leaves the first value of the orbit outside the escape radius in it if
+	 * the point escaped.
+	 */
+	private int getValue(double dcx, double dcy, int iterations, double[] delta) {
+		if (series == null || series.getStartIndex() <= 1) {
+			return getValue(dcx, dcy, iterations, 0, dcx, dcy, 1, delta);
+		}
+		series.evaluate(dcx, dcy, delta);
+		int start = series.getStartIndex();
+		return getValue(dcx, dcy, iterations, start - 1, delta[0], delta[1], start, delta);
+	}
+
+	/** Iterations every pixel skips through the series, {@code 0} without one. */
+	public int getSkippedIterations() {
+		return series == null ? 0 : series.getSkippedIterations();
+	}
+
+	/** Time spent building the series, {@code 0} without one. */
+	public long getSeriesNanos() {
+		return series == null ? 0 : series.getComputeNanos();
+	}
+
+	/**
+	 * Continues a pixel from loop index {@code start} with offset {@code (dx, dy)} against reference point
+	 * {@code m}. Loop index {@code i} produces {@code z(i + 2)}, matching
+	 * {@link MandelbrotMath#getMandelbrotValue(double, double, int)}. Writes the full value at escape to
+	 * {@code escape}.
+	 */
+	private int getValue(double dcx, double dcy, int iterations, int start, double dx, double dy, int m,
+			double[] escape) {
+		int last = orbit.length() - 1;
+
+		for (int i = start; i < iterations; i++) {
+			if (m == last) {
+				dx += orbit.re(m);
+				dy += orbit.im(m);
+				m = 0;
+			}
+
+			double zx = orbit.re(m);
+			double zy = orbit.im(m);
+			double ndx = 2 * (zx * dx - zy * dy) + dx * dx - dy * dy + dcx;
+			double ndy = 2 * (zx * dy + zy * dx) + 2 * dx * dy + dcy;
+			dx = ndx;
+			dy = ndy;
+			m++;
+
+			double x = orbit.re(m) + dx;
+			double y = orbit.im(m) + dy;
+			double magnitude = x * x + y * y;
+			if (magnitude > 4) {
+				escape[0] = x;
+				escape[1] = y;
+				return i;
+			}
+			if (magnitude < dx * dx + dy * dy) {
+				dx = x;
+				dy = y;
+				m = 0;
+			}
+		}
+
+		return -1;
+	}
+}
@@ -0,0 +1,94 @@
+package edu.drury.mandelbrotnavigator.math;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The orbit {@code Z(n + 1) = Z(n)^2 + C} of one reference point, iterated in arbitrary precision and stored as
+ * doubles. Starts with {@code Z(0) = 0} and ends at the first escaped point or after the requested iterations.
+ */
+public final class ReferenceOrbit {
+	private static final BigDecimal FOUR = BigDecimal.valueOf(4);
+
+	private final BigDecimal centerX;
+	private final BigDecimal centerY;
+	private final int precision;
+	private final double[] re;
+	private final double[] im;
+	private final int length;
+
+	private ReferenceOrbit(BigDecimal centerX, BigDecimal centerY, int precision, double[] re, double[] im,
+			int length) {
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.precision = precision;
+		this.re = re;
+		this.im = im;
+		this.length = length;
+	}
+
+	/**
+	 * Iterates the reference point for up to {@code iterations + 1} steps with {@code precision} significant digits.
+	 * Returns {@code null} if {@code cancelled} becomes true before the orbit is finished.
+	 */
+	public static ReferenceOrbit compute(BigDecimal centerX, BigDecimal centerY, int precision, int iterations,
+			BooleanSupplier cancelled) {
+		MathContext mathContext = new MathContext(precision);
+		double[] re = new double[iterations + 2];
+		double[] im = new double[iterations + 2];
+		BigDecimal x = BigDecimal.ZERO;
+		BigDecimal y = BigDecimal.ZERO;
+		int length = 1;
+
+		while (length < re.length) {
+			BigDecimal xx = x.multiply(x, mathContext);
+			BigDecimal yy = y.multiply(y, mathContext);
+			if (xx.add(yy, mathContext).compareTo(FOUR) > 0) {
+				break;
+			}
+			BigDecimal xy = x.multiply(y, mathContext);
+			x = xx.subtract(yy, mathContext).add(centerX, mathContext);
+			y = xy.add(xy, mathContext).add(centerY, mathContext);
+			re[length] = x.doubleValue();
+			im[length] = y.doubleValue();
+			length++;
+
+			if ((length & 0xFF) == 0 && cancelled.getAsBoolean()) {
+				return null;
+			}
+		}
+
+		return new ReferenceOrbit(centerX, centerY, precision, re, im, length);
+	}
+
+	/** Number of significant digits needed to iterate a reference point for a view of the given scale. */
+	public static int precisionFor(double scale) {
+		return Math.max(20, (int) Math.ceil(-Math.log10(scale)) + 12);
+	}
+
+	public BigDecimal getCenterX() {
+		return centerX;
+	}
+
+	public BigDecimal getCenterY() {
+		return centerY;
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	/** Number of stored points, including {@code Z(0)}. */
+	public int length() {
+		return length;
+	}
+
+	public double re(int n) {
+		return re[n];
+	}
+
+	public double im(int n) {
+		return im[n];
+	}
+}
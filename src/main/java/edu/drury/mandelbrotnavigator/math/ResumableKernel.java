@@ -0,0 +1,47 @@
+package edu.drury.mandelbrotnavigator.math;
+
+/**
+ * A kernel that can leave points where they stopped at the iteration limit and continue them later with a higher
+ * limit, so raising the limit only costs the additional iterations of points that had not escaped yet.
+ * <p>
+ * An orbit is left at the last value it reached: after {@code n} iterations, at {@code z(n + 1)} in the numbering of
+ * {@link MandelbrotMath#getMandelbrotValue(double, double, int)}. Points that escape are left at the first value
+ * outside the escape radius, which their fraction is taken from. Points proven to lie inside the set, by the cardioid
+ * test or by cycle detection, are left at NaN and must not be continued. Points that escape get the same escape value
+ * as in a single run; cycle detection starts over where a point is continued, so the iteration at which a periodic
+ * point is caught may differ.
+ */
+public interface ResumableKernel extends EscapeTimeKernel {
+	/**
+	 * Same as {@link #computeRow(double, double, double, int, int[], int, int)}, and writes where the orbit of every
+	 * point was left to {@code zx[i]} and {@code zy[i]}.
+	 */
+	void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count, double[] zx,
+			double[] zy);
+
+	/**
+	 * Takes the fractions from where the orbits of escaped points were left, see
+	 * {@link #computeRow(double, double, double, int, int[], int, int, double[], double[])}.
+	 */
+	@Override
+	default void computeRow(double a, double step, double b, int iterations, int[] values, float[] fractions,
+			int offset, int count) {
+		double[] zx = new double[count];
+		double[] zy = new double[count];
+		computeRow(a, step, b, iterations, values, offset, count, zx, zy);
+		for (int i = 0; i < count; i++) {
+			fractions[offset + i] = values[offset + i] >= 0
+					? MandelbrotMath.getFraction(zx[i], zy[i], a + i * step, b)
+					: 0;
+		}
+	}
+
+	/**
+	 * Continues the orbits of the points {@code (as[i], bs[i])}, left at {@code (zx[i], zy[i])} after {@code from}
+	 * iterations, up to {@code iterations}, for every {@code i} in {@code [0, count)}. Writes their escape values to
+	 * {@code values[i]} and updates the orbits like
+	 * {@link #computeRow(double, double, double, int, int[], int, int, double[], double[])}.
+	 */
+	void continuePoints(double[] as, double[] bs, double[] zx, double[] zy, int from, int iterations, int[] values,
+			int count);
+}
@@ -0,0 +1,35 @@
+package edu.drury.mandelbrotnavigator.math;
+
+final class ScalarKernel implements ResumableKernel {
+	@Override
+	public void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count) {
+		for (int i = 0; i < count; i++) {
+			values[offset + i] = MandelbrotMath.getMandelbrotValue(a + i * step, b, iterations);
+		}
+	}
+
+	@Override
+	public void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count,
+			double[] zx, double[] zy) {
+		for (int i = 0; i < count; i++) {
+			double x = a + i * step;
+			if (MandelbrotMath.isInCardioidOrBulb(x, b)) {
+				zx[i] = Double.NaN;
+				zy[i] = Double.NaN;
+				values[offset + i] = -1;
+			} else {
+				zx[i] = x;
+				zy[i] = b;
+				values[offset + i] = MandelbrotMath.continueMandelbrotValue(x, b, zx, zy, i, 0, iterations);
+			}
+		}
+	}
+
+	@Override
+	public void continuePoints(double[] as, double[] bs, double[] zx, double[] zy, int from, int iterations,
+			int[] values, int count) {
+		for (int i = 0; i < count; i++) {
+			values[i] = MandelbrotMath.continueMandelbrotValue(as[i], bs[i], zx, zy, i, from, iterations);
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package edu.drury.mandelbrotnavigator.math;
+
+/**
+ * Third order series {@code d(n) = A(n) dc + B(n) dc^2 + C(n) dc^3} for the offset of a pixel from a
+ * {@link ReferenceOrbit}. Every pixel of a view can start at reference index {@link #getStartIndex()} from the
+ * evaluated series instead of iterating the shared prefix one step at a time.
+ * <p>
+ * The skip is bounded twice: the cubic term must stay negligible against the quadratic term at the largest offset in
+ * the view, and the series must agree with plain perturbation at probe points on the view's border.
+ */
+public final class SeriesApproximation {
+	/** Largest ratio between the cubic and the quadratic term at the largest offset. */
+	private static final double TERM_TOLERANCE = 1e-6;
+	/** Largest error of the series at a probe point, relative to that probe's exactly iterated offset. */
+	private static final double PROBE_TOLERANCE = 1e-9;
+
+	private final double[] coefficients;
+	private final int startIndex;
+	private final long computeNanos;
+
+	private SeriesApproximation(double[] coefficients, int startIndex, long computeNanos) {
+		this.coefficients = coefficients;
+		this.startIndex = startIndex;
+		this.computeNanos = computeNanos;
+	}
+
+	/**
+	 * Builds the series for offsets up to {@code radius} from the reference center and validates it against probe
+	 * offsets given as {@code {re, im}} pairs.
+	 */
+	public static SeriesApproximation compute(ReferenceOrbit orbit, int iterations, double radius, double[][] probes) {
+		long start = System.nanoTime();
+		// Orbits of centers outside the escape radius end at Z(1), leaving nothing to skip.
+		int limit = Math.max(1, Math.min(iterations, orbit.length() - 2));
+		double[] history = new double[6 * (limit + 1)];
+		double ar = 1, ai = 0, br = 0, bi = 0, cr = 0, ci = 0;
+		int n = 1;
+		store(history, n, ar, ai, br, bi, cr, ci);
+
+		while (n < limit) {
+			double zr = orbit.re(n);
+			double zi = orbit.im(n);
+			double nar = 2 * (zr * ar - zi * ai) + 1;
+			double nai = 2 * (zr * ai + zi * ar);
+			double nbr = 2 * (zr * br - zi * bi) + ar * ar - ai * ai;
+			double nbi = 2 * (zr * bi + zi * br) + 2 * ar * ai;
+			double ncr = 2 * (zr * cr - zi * ci) + 2 * (ar * br - ai * bi);
+			double nci = 2 * (zr * ci + zi * cr) + 2 * (ar * bi + ai * br);
+
+			double quadratic = Math.hypot(nbr, nbi) * radius * radius;
+			double cubic = Math.hypot(ncr, nci) * radius * radius * radius;
+			if (!Double.isFinite(cubic) || cubic > TERM_TOLERANCE * quadratic) {
+				break;
+			}
+
+			ar = nar;
+			ai = nai;
+			br = nbr;
+			bi = nbi;
+			cr = ncr;
+			ci = nci;
+			n++;
+			store(history, n, ar, ai, br, bi, cr, ci);
+		}
+
+		for (double[] probe : probes) {
+			n = Math.min(n, validSkip(orbit, history, n, probe[0], probe[1]));
+		}
+
+		double[] coefficients = new double[6];
+		System.arraycopy(history, 6 * n, coefficients, 0, 6);
+		return new SeriesApproximation(coefficients, n, System.nanoTime() - start);
+	}
+
+	/**
+	 * Iterates one probe with plain perturbation and returns the largest iteration up to {@code n} at which the series
+	 * still matches it. Stops early where the probe would need rebasing or escapes.
+	 */
+	private static int validSkip(ReferenceOrbit orbit, double[] history, int n, double dcr, double dci) {
+		double dr = dcr;
+		double di = dci;
+		int valid = 1;
+
+		for (int m = 1; m < n; m++) {
+			double zr = orbit.re(m);
+			double zi = orbit.im(m);
+			double ndr = 2 * (zr * dr - zi * di) + dr * dr - di * di + dcr;
+			double ndi = 2 * (zr * di + zi * dr) + 2 * dr * di + dci;
+			dr = ndr;
+			di = ndi;
+
+			double x = orbit.re(m + 1) + dr;
+			double y = orbit.im(m + 1) + di;
+			if (x * x + y * y > 4 || x * x + y * y < dr * dr + di * di) {
+				break;
+			}
+
+			double[] approximation = evaluate(history, m + 1, dcr, dci);
+			if (Math.hypot(approximation[0] - dr, approximation[1] - di) > PROBE_TOLERANCE * Math.hypot(dr, di)) {
+				break;
+			}
+			valid = m + 1;
+		}
+
+		return valid;
+	}
+
+	private static void store(double[] history, int n, double ar, double ai, double br, double bi, double cr,
+			double ci) {
+		int index = 6 * n;
+		history[index] = ar;
+		history[index + 1] = ai;
+		history[index + 2] = br;
+		history[index + 3] = bi;
+		history[index + 4] = cr;
+		history[index + 5] = ci;
+	}
+
+	private static double[] evaluate(double[] history, int n, double dcr, double dci) {
+		int index = 6 * n;
+		double[] result = new double[2];
+		evaluate(history[index], history[index + 1], history[index + 2], history[index + 3], history[index + 4],
+				history[index + 5], dcr, dci, result);
+		return result;
+	}
+
+	private static void evaluate(double ar, double ai, double br, double bi, double cr, double ci, double dcr,
+			double dci, double[] result) {
+		// Horner's scheme: dc * (A + dc * (B + dc * C))
+		double tr = br + (dcr * cr - dci * ci);
+		double ti = bi + (dcr * ci + dci * cr);
+		double ur = ar + (dcr * tr - dci * ti);
+		double ui = ai + (dcr * ti + dci * tr);
+		result[0] = dcr * ur - dci * ui;
+		result[1] = dcr * ui + dci * ur;
+	}
+
+	/** Writes the series value {@code d(n)} for the offset {@code (dcr, dci)} to {@code result[0..1]}. */
+	public void evaluate(double dcr, double dci, double[] result) {
+		evaluate(coefficients[0], coefficients[1], coefficients[2], coefficients[3], coefficients[4],
+				coefficients[5], dcr, dci, result);
+	}
+
+	/** Reference index {@code n} at which pixels start iterating; {@code 1} means nothing is skipped. */
+	public int getStartIndex() {
+		return startIndex;
+	}
+
+	public int getSkippedIterations() {
+		return startIndex - 1;
+	}
+
+	/** Time spent building and validating the series. */
+	public long getComputeNanos() {
+		return computeNanos;
+	}
+}
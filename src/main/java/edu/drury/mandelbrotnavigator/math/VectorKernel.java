@@ -0,0 +1,167 @@
+package edu.drury.mandelbrotnavigator.math;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Iterates a full vector of points per step, masking off lanes as they escape. Performs the same floating point
+ * operations in the same order as {@link MandelbrotMath#getMandelbrotValue(double, double, int)}, so results are
+ * identical to the scalar kernel. Only loaded when the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorKernel implements ResumableKernel {
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	@Override
+	public void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count) {
+		computeRow(a, step, b, iterations, values, offset, count, null, null);
+	}
+
+	@Override
+	public void computeRow(double a, double step, double b, int iterations, int[] values, int offset, int count,
+			double[] zx, double[] zy) {
+		int lanes = SPECIES.length();
+		double[] points = new double[lanes];
+		double[] results = new double[lanes];
+		double[] orbitX = zx != null ? new double[lanes] : null;
+		double[] orbitY = zy != null ? new double[lanes] : null;
+		DoubleVector bs = DoubleVector.broadcast(SPECIES, b);
+		DoubleVector four = DoubleVector.broadcast(SPECIES, 4);
+		DoubleVector epsilon = DoubleVector.broadcast(SPECIES, MandelbrotMath.PERIODICITY_EPSILON);
+		DoubleVector bSquared = bs.mul(bs);
+
+		for (int start = 0; start < count; start += lanes) {
+			int length = Math.min(lanes, count - start);
+			for (int lane = 0; lane < lanes; lane++) {
+				points[lane] = a + (start + lane) * step;
+			}
+
+			DoubleVector as = DoubleVector.fromArray(SPECIES, points, 0);
+			DoubleVector x = as;
+			DoubleVector y = bs;
+			DoubleVector result = DoubleVector.broadcast(SPECIES, -1);
+			VectorMask<Double> active = SPECIES.indexInRange(0, length).andNot(isInCardioidOrBulb(as, bSquared));
+			DoubleVector savedX = x;
+			DoubleVector savedY = y;
+			DoubleVector escapeX = x;
+			DoubleVector escapeY = y;
+			int nextSave = 2;
+
+			for (int i = 0; i < iterations && active.anyTrue(); i++) {
+				DoubleVector px = x;
+				x = px.mul(px).sub(y.mul(y)).add(as);
+				y = px.add(px).mul(y).add(bs);
+
+				VectorMask<Double> escaped = x.mul(x).add(y.mul(y)).compare(VectorOperators.GT, four);
+				VectorMask<Double> periodic = x.sub(savedX).abs().compare(VectorOperators.LT, epsilon)
+						.and(y.sub(savedY).abs().compare(VectorOperators.LT, epsilon));
+				VectorMask<Double> escapedNow = escaped.and(active);
+				if (escapedNow.anyTrue()) {
+					result = result.blend(i, escapedNow);
+					if (zx != null) {
+						escapeX = escapeX.blend(x, escapedNow);
+						escapeY = escapeY.blend(y, escapedNow);
+					}
+				}
+				active = active.andNot(escaped.or(periodic));
+
+				if (i == nextSave) {
+					savedX = x;
+					savedY = y;
+					nextSave <<= 1;
+				}
+			}
+
+			result.intoArray(results, 0);
+			for (int lane = 0; lane < length; lane++) {
+				values[offset + start + lane] = (int) results[lane];
+			}
+			if (zx != null) {
+				VectorMask<Double> stopped = active.not();
+				VectorMask<Double> escaped = result.compare(VectorOperators.GE, 0);
+				x.blend(Double.NaN, stopped).blend(escapeX, escaped).intoArray(orbitX, 0);
+				y.blend(Double.NaN, stopped).blend(escapeY, escaped).intoArray(orbitY, 0);
+				System.arraycopy(orbitX, 0, zx, start, length);
+				System.arraycopy(orbitY, 0, zy, start, length);
+			}
+		}
+	}
+
+	/** Same loop as the row kernel, starting every lane from its own orbit instead of from its point. */
+	@Override
+	public void continuePoints(double[] as, double[] bs, double[] zx, double[] zy, int from, int iterations,
+			int[] values, int count) {
+		int lanes = SPECIES.length();
+		double[] pointsX = new double[lanes];
+		double[] pointsY = new double[lanes];
+		double[] orbitX = new double[lanes];
+		double[] orbitY = new double[lanes];
+		double[] results = new double[lanes];
+		DoubleVector four = DoubleVector.broadcast(SPECIES, 4);
+		DoubleVector epsilon = DoubleVector.broadcast(SPECIES, MandelbrotMath.PERIODICITY_EPSILON);
+
+		for (int start = 0; start < count; start += lanes) {
+			int length = Math.min(lanes, count - start);
+			System.arraycopy(as, start, pointsX, 0, length);
+			System.arraycopy(bs, start, pointsY, 0, length);
+			System.arraycopy(zx, start, orbitX, 0, length);
+			System.arraycopy(zy, start, orbitY, 0, length);
+
+			DoubleVector pointX = DoubleVector.fromArray(SPECIES, pointsX, 0);
+			DoubleVector pointY = DoubleVector.fromArray(SPECIES, pointsY, 0);
+			DoubleVector x = DoubleVector.fromArray(SPECIES, orbitX, 0);
+			DoubleVector y = DoubleVector.fromArray(SPECIES, orbitY, 0);
+			DoubleVector result = DoubleVector.broadcast(SPECIES, -1);
+			VectorMask<Double> active = SPECIES.indexInRange(0, length);
+			DoubleVector savedX = x;
+			DoubleVector savedY = y;
+			DoubleVector escapeX = x;
+			DoubleVector escapeY = y;
+			int nextSave = Math.max(2, 2 * from);
+
+			for (int i = from; i < iterations && active.anyTrue(); i++) {
+				DoubleVector px = x;
+				x = px.mul(px).sub(y.mul(y)).add(pointX);
+				y = px.add(px).mul(y).add(pointY);
+
+				VectorMask<Double> escaped = x.mul(x).add(y.mul(y)).compare(VectorOperators.GT, four);
+				VectorMask<Double> periodic = x.sub(savedX).abs().compare(VectorOperators.LT, epsilon)
+						.and(y.sub(savedY).abs().compare(VectorOperators.LT, epsilon));
+				VectorMask<Double> escapedNow = escaped.and(active);
+				if (escapedNow.anyTrue()) {
+					result = result.blend(i, escapedNow);
+					escapeX = escapeX.blend(x, escapedNow);
+					escapeY = escapeY.blend(y, escapedNow);
+				}
+				active = active.andNot(escaped.or(periodic));
+
+				if (i == nextSave) {
+					savedX = x;
+					savedY = y;
+					nextSave <<= 1;
+				}
+			}
+
+			result.intoArray(results, 0);
+			VectorMask<Double> stopped = active.not();
+			VectorMask<Double> escaped = result.compare(VectorOperators.GE, 0);
+			x.blend(Double.NaN, stopped).blend(escapeX, escaped).intoArray(orbitX, 0);
+			y.blend(Double.NaN, stopped).blend(escapeY, escaped).intoArray(orbitY, 0);
+			for (int lane = 0; lane < length; lane++) {
+				values[start + lane] = (int) results[lane];
+			}
+			System.arraycopy(orbitX, 0, zx, start, length);
+			System.arraycopy(orbitY, 0, zy, start, length);
+		}
+	}
+
+	private static VectorMask<Double> isInCardioidOrBulb(DoubleVector a, DoubleVector bSquared) {
+		DoubleVector shifted = a.sub(0.25);
+		DoubleVector q = shifted.mul(shifted).add(bSquared);
+		VectorMask<Double> cardioid = q.mul(q.add(shifted)).compare(VectorOperators.LE, bSquared.mul(0.25));
+		DoubleVector plusOne = a.add(1);
+		VectorMask<Double> bulb = plusOne.mul(plusOne).add(bSquared).compare(VectorOperators.LE, 0.0625);
+		return cardioid.or(bulb);
+	}
+}
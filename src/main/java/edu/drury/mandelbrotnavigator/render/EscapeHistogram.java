@@ -0,0 +1,45 @@
+package edu.drury.mandelbrotnavigator.render;
+
+/**
+ * Counts how many pixels of a frame escaped at each iteration, for histogram equalization. Every render thread counts
+ * a stripe of the values into counters of its own, and the counters are then summed range of escape values by range,
+ * also in parallel, so no counter is shared between threads and no update needs a lock or an atomic operation.
+ */
+public final class EscapeHistogram {
+	/** Escape values whose counters are summed by one task. */
+	private static final int MERGE_RANGE = 1 << 14;
+
+	private EscapeHistogram() {
+	}
+
+	/** Returns how many of {@code values} equal each escape value below {@code iterations}; others are not counted. */
+	public static long[] count(int[] values, int iterations, RenderExecutor executor) {
+		int stripes = executor.getParallelism();
+		int stripeLength = (values.length + stripes - 1) / stripes;
+		int[][] counters = new int[stripes][];
+
+		executor.forEachInOrder(stripes, stripe -> {
+			int[] counts = new int[iterations];
+			int to = Math.min(values.length, (stripe + 1) * stripeLength);
+			for (int i = stripe * stripeLength; i < to; i++) {
+				int value = values[i];
+				if (value >= 0 && value < iterations) {
+					counts[value]++;
+				}
+			}
+			counters[stripe] = counts;
+		});
+
+		long[] histogram = new long[iterations];
+		executor.forEachInOrder((iterations + MERGE_RANGE - 1) / MERGE_RANGE, range -> {
+			int from = range * MERGE_RANGE;
+			int to = Math.min(iterations, from + MERGE_RANGE);
+			for (int[] counts : counters) {
+				for (int value = from; value < to; value++) {
+					histogram[value] += counts[value];
+				}
+			}
+		});
+		return histogram;
+	}
+}
@@ -0,0 +1,179 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the measurements of one frame while it renders. Counting methods are thread-safe; passes are begun and
+ * ended by the thread that drives the frame. {@link #finish(String, boolean)} commits the Flight Recorder events and
+ * adds the frame to {@link RenderStatistics}.
+ */
+public final class FrameRecorder {
+	private final long frame;
+	private final View view;
+	private final RenderExecutor executor;
+	private final long start = System.nanoTime();
+	private final long startBusyNanos;
+	private final RenderExecutor.BusySample startBusy;
+	private final RenderEvents.Frame event = new RenderEvents.Frame();
+
+	private final LongAdder pixelsComputed = new LongAdder();
+	private final LongAdder pixelsReused = new LongAdder();
+	private final LongAdder iterations = new LongAdder();
+	private final LongAdder interiorPixels = new LongAdder();
+	private final LongAdder colorizeNanos = new LongAdder();
+	private volatile int seriesSkippedIterations;
+	private volatile long seriesNanos;
+
+	private final List<RenderStats> passes = new ArrayList<>();
+	private RenderEvents.Pass passEvent;
+	private int passBlockSize;
+	private long passStart;
+	private long[] passCounters;
+
+	/** Starts measuring a frame rendered on {@code executor}. */
+	public FrameRecorder(long frame, View view, RenderExecutor executor) {
+		this.frame = frame;
+		this.view = view;
+		this.executor = executor;
+		this.startBusyNanos = executor.getBusyNanos();
+		this.startBusy = executor.sampleBusy();
+		event.begin();
+	}
+
+	/**
+	 * Counts {@code values[offset, offset + count)} as computed escape values, less the iterations every pixel skipped
+	 * through series approximation.
+	 */
+	public void computed(int[] values, int offset, int count) {
+		count(values, offset, count, seriesSkippedIterations);
+	}
+
+	/**
+	 * Counts {@code values[0, count)} as escape values of pixels continued from {@code from} iterations, of which
+	 * only the iterations past {@code from} were computed.
+	 */
+	void continued(int[] values, int count, int from) {
+		count(values, 0, count, from);
+	}
+
+	/**
+	 * Adds the iterations past {@code from} of each escape value, charging points that did not escape up to the limit
+	 * since the kernels do not say when the cardioid test or cycle detection stopped them.
+	 */
+	private void count(int[] values, int offset, int count, int from) {
+		long sum = 0;
+		int interior = 0;
+		int limit = view.getIterations();
+		for (int i = offset; i < offset + count; i++) {
+			int value = values[i];
+			if (value < 0) {
+				interior++;
+				sum += Math.max(0, limit - from);
+			} else {
+				sum += Math.max(0, value + 1 - from);
+			}
+		}
+		pixelsComputed.add(count);
+		iterations.add(sum);
+		interiorPixels.add(interior);
+	}
+
+	public void reused(long pixels) {
+		pixelsReused.add(pixels);
+	}
+
+	public void colorized(long nanos) {
+		colorizeNanos.add(nanos);
+	}
+
+	/**
+	 * Records the series approximation stage of a deep frame: every pixel skipped {@code skippedIterations}, and the
+	 * series took {@code nanos} to build.
+	 */
+	void seriesApproximated(int skippedIterations, long nanos) {
+		seriesSkippedIterations = skippedIterations;
+		seriesNanos = nanos;
+	}
+
+	/** Starts a pass of blocks {@code blockSize} pixels wide. */
+	void beginPass(int blockSize) {
+		passBlockSize = blockSize;
+		passStart = System.nanoTime();
+		passCounters = counters();
+		passEvent = new RenderEvents.Pass();
+		passEvent.begin();
+	}
+
+	void endPass() {
+		long now = System.nanoTime();
+		long[] counters = counters();
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] -= passCounters[i];
+		}
+		long wall = now - passStart;
+		RenderStats pass = new RenderStats("pass " + passBlockSize, frame, view.getWidth(), view.getHeight(),
+				view.getIterations(), true, wall, counters[4], 0, 0, counters[0], counters[1], counters[2],
+				counters[3], utilization(counters[5], wall), new double[0], List.of());
+		passes.add(pass);
+
+		passEvent.end();
+		if (passEvent.shouldCommit()) {
+			passEvent.frame = frame;
+			passEvent.blockSize = passBlockSize;
+			passEvent.pixelsComputed = pass.getPixelsComputed();
+			passEvent.iterations = pass.getIterations();
+			passEvent.interiorRatio = pass.getInteriorRatio();
+			passEvent.utilization = pass.getUtilization();
+			passEvent.colorizeNanos = pass.getColorizeNanos();
+			passEvent.commit();
+		}
+	}
+
+	/**
+	 * Ends the frame, which {@code completed} unless it was abandoned, and returns its measurements. {@code name}
+	 * says how it was rendered, such as {@code progressive} or {@code export}.
+	 */
+	public RenderStats finish(String name, boolean completed) {
+		long wall = System.nanoTime() - start;
+		double[] threadUtilization = executor.utilizationSince(startBusy);
+		long[] counters = counters();
+		RenderStats stats = new RenderStats(name, frame, view.getWidth(), view.getHeight(), view.getIterations(),
+				completed, wall, counters[4], seriesSkippedIterations, seriesNanos, counters[0], counters[1],
+				counters[2], counters[3], utilization(counters[5], wall), threadUtilization, passes);
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.frame = frame;
+			event.kind = name;
+			event.width = view.getWidth();
+			event.height = view.getHeight();
+			event.iterationLimit = view.getIterations();
+			event.completed = completed;
+			event.pixelsComputed = stats.getPixelsComputed();
+			event.pixelsReused = stats.getPixelsReused();
+			event.iterations = stats.getIterations();
+			event.interiorRatio = stats.getInteriorRatio();
+			event.utilization = stats.getUtilization();
+			event.maxThreadUtilization = Arrays.stream(threadUtilization).max().orElse(0);
+			event.colorizeNanos = stats.getColorizeNanos();
+			event.seriesSkippedIterations = stats.getSeriesSkippedIterations();
+			event.seriesNanos = stats.getSeriesNanos();
+			event.commit();
+		}
+
+		RenderStatistics.getInstance().record(stats);
+		return stats;
+	}
+
+	private long[] counters() {
+		return new long[] {pixelsComputed.sum(), pixelsReused.sum(), iterations.sum(), interiorPixels.sum(),
+				colorizeNanos.sum(), executor.getBusyNanos() - startBusyNanos};
+	}
+
+	private double utilization(long busyNanos, long wallNanos) {
+		return wallNanos > 0 ? Math.min(1, (double) busyNanos / wallNanos / executor.getParallelism()) : 0;
+	}
+}
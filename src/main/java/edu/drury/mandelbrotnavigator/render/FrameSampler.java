@@ -0,0 +1,187 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import edu.drury.mandelbrotnavigator.math.DoubleDoubleKernel;
+import edu.drury.mandelbrotnavigator.math.EscapeTimeKernel;
+import edu.drury.mandelbrotnavigator.math.MandelbrotMath;
+import edu.drury.mandelbrotnavigator.math.PerturbationKernel;
+import edu.drury.mandelbrotnavigator.math.ReferenceOrbit;
+import edu.drury.mandelbrotnavigator.math.ResumableKernel;
+import edu.drury.mandelbrotnavigator.math.SeriesApproximation;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Computes escape values at pixel coordinates of a frame, where {@code (0, 0)} is the frame's top left corner and
+ * {@code (0.5, 0.5)} the center of its first pixel. Views that need more than double precision are sampled as offsets
+ * from the view center, either in double-double arithmetic or by perturbation against a reference orbit.
+ */
+public final class FrameSampler {
+	private final EscapeTimeKernel kernel;
+	private final double left;
+	private final double top;
+	private final double step;
+	private final int iterations;
+	private final FrameRecorder recorder;
+
+	private FrameSampler(EscapeTimeKernel kernel, double left, double top, double step, int iterations) {
+		this(kernel, left, top, step, iterations, null);
+	}
+
+	private FrameSampler(EscapeTimeKernel kernel, double left, double top, double step, int iterations,
+			FrameRecorder recorder) {
+		this.kernel = kernel;
+		this.left = left;
+		this.top = top;
+		this.step = step;
+		this.iterations = iterations;
+		this.recorder = recorder;
+	}
+
+	public static FrameSampler create(View view) {
+		return create(view, () -> false);
+	}
+
+	/** Returns {@code null} if {@code cancelled} becomes true while a reference orbit is being computed. */
+	public static FrameSampler create(View view, BooleanSupplier cancelled) {
+		Precision precision = view.getPrecision();
+		if (precision == Precision.DOUBLE) {
+			return new FrameSampler(MandelbrotMath.getKernel(), view.getLeft(), view.getTop(), view.getStep(),
+					view.getIterations());
+		}
+
+		double halfWidth = (1.0 * view.getWidth() / view.getHeight()) * view.getScale() / 2;
+		double halfHeight = view.getScale() / 2;
+
+		if (precision == Precision.DOUBLE_DOUBLE) {
+			return new FrameSampler(new DoubleDoubleKernel(view.getX(), view.getY()), -halfWidth, halfHeight,
+					view.getStep(), view.getIterations());
+		}
+
+		ReferenceOrbit orbit = ReferenceOrbit.compute(view.getX().toBigDecimal(), view.getY().toBigDecimal(),
+				ReferenceOrbit.precisionFor(view.getScale()), view.getIterations(), cancelled);
+		if (orbit == null) {
+			return null;
+		}
+		return create(view, orbit);
+	}
+
+	/**
+	 * Sampler that perturbs against an existing reference orbit, which does not have to be at the view center but
+	 * should lie in or near the view and have at least the view's iterations and precision.
+	 */
+	public static FrameSampler create(View view, ReferenceOrbit orbit) {
+		double halfWidth = (1.0 * view.getWidth() / view.getHeight()) * view.getScale() / 2;
+		double halfHeight = view.getScale() / 2;
+		double offsetX = view.getX().toBigDecimal().subtract(orbit.getCenterX()).doubleValue();
+		double offsetY = view.getY().toBigDecimal().subtract(orbit.getCenterY()).doubleValue();
+		double left = offsetX - halfWidth;
+		double right = offsetX + halfWidth;
+		double top = offsetY + halfHeight;
+		double bottom = offsetY - halfHeight;
+
+		double[][] probes = {
+				{left, top}, {offsetX, top}, {right, top},
+				{left, offsetY}, {right, offsetY},
+				{left, bottom}, {offsetX, bottom}, {right, bottom}
+		};
+		double radius = Math.hypot(Math.max(Math.abs(left), Math.abs(right)),
+				Math.max(Math.abs(top), Math.abs(bottom)));
+		SeriesApproximation series = SeriesApproximation.compute(orbit, view.getIterations(), radius, probes);
+		return new FrameSampler(new PerturbationKernel(orbit, series), left, top, view.getStep(), view.getIterations());
+	}
+
+	/** Sampler for absolute coordinates whose top left corner is {@code (left, top)}. */
+	static FrameSampler absolute(double left, double top, double step, int iterations) {
+		return new FrameSampler(MandelbrotMath.getKernel(), left, top, step, iterations);
+	}
+
+	/**
+	 * Writes the escape values at pixel coordinates {@code (x + i * xStep, y)} to {@code values[offset + i]} for
+	 * every {@code i} in {@code [0, count)}.
+	 */
+	public void computeRow(double x, double xStep, double y, int[] values, int offset, int count) {
+		kernel.computeRow(left + x * step, xStep * step, top - y * step, iterations, values, offset, count);
+		if (recorder != null) {
+			recorder.computed(values, offset, count);
+		}
+	}
+
+	/**
+	 * Same as {@link #computeRow(double, double, double, int[], int, int)}, and writes the fraction every escaped pixel
+	 * adds to its escape value to {@code fractions[offset + i]}, unless {@code fractions} is {@code null}; see
+	 * {@link MandelbrotMath#getFraction(double, double, double, double)}.
+	 */
+	public void computeRow(double x, double xStep, double y, int[] values, float[] fractions, int offset, int count) {
+		if (fractions == null) {
+			computeRow(x, xStep, y, values, offset, count);
+			return;
+		}
+		kernel.computeRow(left + x * step, xStep * step, top - y * step, iterations, values, fractions, offset,
+				count);
+		if (recorder != null) {
+			recorder.computed(values, offset, count);
+		}
+	}
+
+	/**
+	 * Same as {@link #computeRow(double, double, double, int[], float[], int, int)}, and adds where the orbits of
+	 * pixels that did not escape stopped to {@code orbits}, unless it is {@code null}. Only for samplers that
+	 * {@link #canResume()}.
+	 */
+	void computeRow(double x, double xStep, double y, int[] values, float[] fractions, int offset, int count,
+			OrbitRow orbits) {
+		if (orbits == null) {
+			computeRow(x, xStep, y, values, fractions, offset, count);
+			return;
+		}
+		double a = left + x * step;
+		double aStep = xStep * step;
+		double b = top - y * step;
+		double[] zx = new double[count];
+		double[] zy = new double[count];
+		((ResumableKernel) kernel).computeRow(a, aStep, b, iterations, values, offset, count, zx, zy);
+		if (recorder != null) {
+			recorder.computed(values, offset, count);
+		}
+		for (int i = 0; i < count; i++) {
+			if (values[offset + i] < 0) {
+				orbits.add((int) (x + i * xStep), a + i * aStep, b, zx[i], zy[i]);
+			}
+			if (fractions != null) {
+				fractions[offset + i] = values[offset + i] >= 0
+						? MandelbrotMath.getFraction(zx[i], zy[i], a + i * aStep, b)
+						: 0;
+			}
+		}
+	}
+
+	/**
+	 * Tests whether the rectangle of pixels {@code [x0, x1) x [y0, y1)} contains the origin. Only double precision
+	 * samplers use absolute coordinates; the others sample views far too small to contain it.
+	 */
+	boolean containsOrigin(int x0, int y0, int x1, int y1) {
+		return canResume() && left + x0 * step <= 0 && left + x1 * step >= 0 && top - y1 * step <= 0
+				&& top - y0 * step >= 0;
+	}
+
+	/** Tests whether the sampler can leave orbits to be continued, which only double precision samplers can. */
+	boolean canResume() {
+		return kernel instanceof ResumableKernel;
+	}
+
+	/**
+	 * Returns a sampler for the same points that counts every value it computes in {@code recorder}. Deep samplers
+	 * also record their series approximation stage there.
+	 */
+	public FrameSampler recordingTo(FrameRecorder recorder) {
+		if (kernel instanceof PerturbationKernel) {
+			PerturbationKernel perturbation = (PerturbationKernel) kernel;
+			recorder.seriesApproximated(perturbation.getSkippedIterations(), perturbation.getSeriesNanos());
+		}
+		return new FrameSampler(kernel, left, top, step, iterations, recorder);
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+}
@@ -0,0 +1,229 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import edu.drury.mandelbrotnavigator.math.MandelbrotMath;
+import edu.drury.mandelbrotnavigator.math.ResumableKernel;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Chooses the iteration limit of a view from a sparse grid of samples. The grid is iterated to
+ * {@link #MIN_ITERATIONS} and the limit doubled until a doubling lets no more than {@link #CONVERGED_FRACTION} of
+ * all samples escape, and no more than {@link #TAIL_FRACTION} of the samples that escaped before. The second test
+ * keeps deep views, where hardly any sample escapes below some thousand iterations, from stopping before their
+ * escape values even start. The limit is then trimmed to twice the escape value that all but
+ * {@link #CONVERGED_FRACTION} of the samples stay below, since a frame needs no more iterations than its slowest
+ * visible pixels.
+ * <p>
+ * Samples of views that are not deep are continued from where they stopped; samples of deep views that did not
+ * escape are computed again with each larger limit, which costs at most twice as much.
+ */
+public final class IterationBudget {
+	public static final int MIN_ITERATIONS = 256;
+	/** Highest limit chosen; deep views have no cycle detection, so their interior samples run up to it. */
+	public static final int MAX_ITERATIONS = 1 << 18;
+	/** Fraction of samples, or of pixels, below which raising the limit is considered to change nothing visible. */
+	public static final double CONVERGED_FRACTION = 0.001;
+	/** Largest share of the samples escaped so far that the last doubling may add for the grid to have converged. */
+	private static final double TAIL_FRACTION = 0.01;
+	/**
+	 * Limit at which a deep view none of whose samples escaped is taken to lie inside the set if its center is caught
+	 * by cycle detection in doubles, since deep samples have no cycle detection of their own.
+	 */
+	private static final int INTERIOR_ITERATIONS = 1 << 14;
+	private static final int SAMPLE_COLUMNS = 80;
+	/** Samples continued per task, small enough to spread the expensive last doublings over all workers. */
+	private static final int CHUNK_SIZE = 16;
+
+	private final View view;
+	private final RenderExecutor executor;
+	private final BooleanSupplier cancelled;
+	private final int columns;
+	private final int rows;
+	private final int[] values;
+
+	private IterationBudget(View view, RenderExecutor executor, BooleanSupplier cancelled) {
+		this.view = view;
+		this.executor = executor;
+		this.cancelled = cancelled;
+		this.columns = Math.min(SAMPLE_COLUMNS, view.getWidth());
+		this.rows = Math.max(1, Math.min(view.getHeight(),
+				(int) Math.round((double) columns * view.getHeight() / view.getWidth())));
+		this.values = new int[columns * rows];
+	}
+
+	/**
+	 * Returns the iteration limit for {@code view}, whose own limit is ignored, or -1 if {@code cancelled} became
+	 * true first.
+	 */
+	public static int choose(View view, RenderExecutor executor, BooleanSupplier cancelled) {
+		IterationBudget budget = new IterationBudget(view, executor, cancelled);
+		int iterations = view.getPrecision() == Precision.DOUBLE ? budget.resume() : budget.recompute();
+		return iterations > 0 ? budget.trim(iterations) : -1;
+	}
+
+	/** Tests whether {@code changed} of {@code total} samples or pixels are few enough to stop raising the limit. */
+	public static boolean isConverged(long changed, long total) {
+		return changed <= CONVERGED_FRACTION * total;
+	}
+
+	/** Tests whether a doubling that let {@code escaped} more samples escape, {@code total} now, changed nothing. */
+	private boolean hasConverged(int escaped, int total) {
+		return total > 0 && isConverged(escaped, values.length) && escaped <= TAIL_FRACTION * total;
+	}
+
+	/** Iterates the grid in doubles, continuing the samples that did not escape from where they stopped. */
+	private int resume() {
+		ResumableKernel kernel = MandelbrotMath.getKernel();
+		double[] zx = new double[values.length];
+		double[] zy = new double[values.length];
+		double[] as = new double[values.length];
+		double[] bs = new double[values.length];
+		double xStep = (double) view.getWidth() / columns * view.getStep();
+		double left = view.getLeft() + xStep / 2;
+
+		executor.forEachRow(0, rows, row -> {
+			double b = view.getTop() - pixelY(row) * view.getStep();
+			double[] rowX = new double[columns];
+			double[] rowY = new double[columns];
+			kernel.computeRow(left, xStep, b, MIN_ITERATIONS, values, row * columns, columns, rowX, rowY);
+			for (int column = 0; column < columns; column++) {
+				as[row * columns + column] = left + column * xStep;
+				bs[row * columns + column] = b;
+			}
+			System.arraycopy(rowX, 0, zx, row * columns, columns);
+			System.arraycopy(rowY, 0, zy, row * columns, columns);
+		});
+
+		int iterations = MIN_ITERATIONS;
+		int total = escaped();
+		while (iterations < MAX_ITERATIONS && !cancelled.getAsBoolean()) {
+			int[] pending = pending(zx);
+			if (pending.length == 0) {
+				return iterations;
+			}
+
+			int from = iterations;
+			int to = 2 * iterations;
+			executor.forEachRow(0, (pending.length + CHUNK_SIZE - 1) / CHUNK_SIZE, chunk -> {
+				int start = chunk * CHUNK_SIZE;
+				int count = Math.min(CHUNK_SIZE, pending.length - start);
+				double[] pointsX = new double[count];
+				double[] pointsY = new double[count];
+				double[] orbitsX = new double[count];
+				double[] orbitsY = new double[count];
+				int[] results = new int[count];
+				for (int i = 0; i < count; i++) {
+					int sample = pending[start + i];
+					pointsX[i] = as[sample];
+					pointsY[i] = bs[sample];
+					orbitsX[i] = zx[sample];
+					orbitsY[i] = zy[sample];
+				}
+				kernel.continuePoints(pointsX, pointsY, orbitsX, orbitsY, from, to, results, count);
+				for (int i = 0; i < count; i++) {
+					int sample = pending[start + i];
+					values[sample] = results[i];
+					zx[sample] = orbitsX[i];
+					zy[sample] = orbitsY[i];
+				}
+			});
+			int escaped = 0;
+			for (int sample : pending) {
+				if (values[sample] >= 0) {
+					escaped++;
+				}
+			}
+
+			iterations = to;
+			total += escaped;
+			if (hasConverged(escaped, total)) {
+				return iterations;
+			}
+		}
+		return cancelled.getAsBoolean() ? -1 : iterations;
+	}
+
+	/** Samples of the grid that neither escaped nor were proven to lie inside the set. */
+	private int[] pending(double[] zx) {
+		int[] pending = new int[values.length];
+		int count = 0;
+		for (int sample = 0; sample < values.length; sample++) {
+			if (values[sample] < 0 && !Double.isNaN(zx[sample])) {
+				pending[count++] = sample;
+			}
+		}
+		return Arrays.copyOf(pending, count);
+	}
+
+	/** Iterates the grid with the sampler of the view, computing the samples that did not escape again. */
+	private int recompute() {
+		int iterations = MIN_ITERATIONS;
+		Arrays.fill(values, -1);
+		int escapedBefore = 0;
+		while (!cancelled.getAsBoolean()) {
+			FrameSampler sampler = FrameSampler.create(view.withIterations(iterations), cancelled);
+			if (sampler == null) {
+				return -1;
+			}
+			double xStep = (double) view.getWidth() / columns;
+			executor.forEachRow(0, rows, row -> {
+				for (int column = 0; column < columns; column++) {
+					if (values[row * columns + column] < 0 && !cancelled.getAsBoolean()) {
+						sampler.computeRow((column + 0.5) * xStep, 1, pixelY(row), values, row * columns + column,
+								1);
+					}
+				}
+			});
+
+			int escaped = escaped();
+			if (iterations >= MAX_ITERATIONS || escaped == 0 && iterations == INTERIOR_ITERATIONS && isCenterPeriodic()
+					|| iterations > MIN_ITERATIONS && hasConverged(escaped - escapedBefore, escaped)) {
+				return iterations;
+			}
+			escapedBefore = escaped;
+			iterations *= 2;
+		}
+		return -1;
+	}
+
+	/** Tests whether the view center, rounded to doubles, lies inside the set by {@link #INTERIOR_ITERATIONS}. */
+	private boolean isCenterPeriodic() {
+		double a = view.getX().doubleValue();
+		double b = view.getY().doubleValue();
+		double[] zx = {a};
+		double[] zy = {b};
+		return MandelbrotMath.isInCardioidOrBulb(a, b)
+				|| MandelbrotMath.continueMandelbrotValue(a, b, zx, zy, 0, 0, INTERIOR_ITERATIONS) < 0
+						&& Double.isNaN(zx[0]);
+	}
+
+	private int escaped() {
+		int escaped = 0;
+		for (int value : values) {
+			if (value >= 0) {
+				escaped++;
+			}
+		}
+		return escaped;
+	}
+
+	/** Pixel coordinate of the centers of the samples in {@code row}. */
+	private double pixelY(int row) {
+		return (row + 0.5) * view.getHeight() / rows;
+	}
+
+	/**
+	 * Lowers {@code iterations} to twice the escape value that all but {@link #CONVERGED_FRACTION} of the escaped
+	 * samples stay below, but not under {@link #MIN_ITERATIONS}.
+	 */
+	private int trim(int iterations) {
+		int[] escaped = Arrays.stream(values).filter(value -> value >= 0).sorted().toArray();
+		if (escaped.length == 0) {
+			return MIN_ITERATIONS;
+		}
+		int tail = (int) Math.floor(CONVERGED_FRACTION * values.length);
+		int slowest = escaped[Math.max(0, escaped.length - 1 - tail)];
+		return Math.max(MIN_ITERATIONS, Math.min(iterations, 2 * (slowest + 1)));
+	}
+}
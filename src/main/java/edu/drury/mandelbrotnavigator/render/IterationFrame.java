@@ -0,0 +1,104 @@
+package edu.drury.mandelbrotnavigator.render;
+
+/**
+ * Escape values of a full-resolution frame together with the grid they were sampled on. Pixel {@code (x, y)} was
+ * sampled at the center of the pixel whose top left corner is {@code (left + x * step, top - y * step)}.
+ * <p>
+ * Frames that keep orbits also hold an {@link OrbitRow} per row, so they can be continued to a higher iteration limit.
+ * Frames of {@link edu.drury.mandelbrotnavigator.color.Coloring#SMOOTH} views also hold the fraction every escaped
+ * pixel adds to its escape value.
+ */
+final class IterationFrame {
+	private final double left;
+	private final double top;
+	private final double step;
+	private final int iterations;
+	private final int width;
+	private final int height;
+	private final int[] values;
+	private final OrbitRow[] orbits;
+	private final float[] fractions;
+
+	IterationFrame(double left, double top, double step, int iterations, int width, int height) {
+		this(left, top, step, iterations, width, height, false);
+	}
+
+	IterationFrame(double left, double top, double step, int iterations, int width, int height, boolean keepOrbits) {
+		this(left, top, step, iterations, width, height, keepOrbits, false);
+	}
+
+	IterationFrame(double left, double top, double step, int iterations, int width, int height, boolean keepOrbits,
+			boolean keepFractions) {
+		this.left = left;
+		this.top = top;
+		this.step = step;
+		this.iterations = iterations;
+		this.width = width;
+		this.height = height;
+		this.values = new int[width * height];
+		this.orbits = keepOrbits ? new OrbitRow[height] : null;
+		this.fractions = keepFractions ? new float[width * height] : null;
+		if (keepOrbits) {
+			for (int row = 0; row < height; row++) {
+				orbits[row] = new OrbitRow();
+			}
+		}
+	}
+
+	double getLeft() {
+		return left;
+	}
+
+	double getTop() {
+		return top;
+	}
+
+	double getStep() {
+		return step;
+	}
+
+	int getIterations() {
+		return iterations;
+	}
+
+	int getWidth() {
+		return width;
+	}
+
+	int getHeight() {
+		return height;
+	}
+
+	int[] getValues() {
+		return values;
+	}
+
+	/** Returns the fractions of the escape values, or {@code null} if the frame does not keep them. */
+	float[] getFractions() {
+		return fractions;
+	}
+
+	boolean hasFractions() {
+		return fractions != null;
+	}
+
+	boolean hasOrbits() {
+		return orbits != null;
+	}
+
+	/** Counts the pixels that can still escape with a higher limit, or 0 if the frame does not keep orbits. */
+	long countOrbits() {
+		long count = 0;
+		if (orbits != null) {
+			for (OrbitRow row : orbits) {
+				count += row.size();
+			}
+		}
+		return count;
+	}
+
+	/** Returns the orbits of row {@code y}, or {@code null} if the frame does not keep orbits. */
+	OrbitRow getOrbits(int y) {
+		return orbits != null ? orbits[y] : null;
+	}
+}
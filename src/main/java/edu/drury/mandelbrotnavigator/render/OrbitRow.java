@@ -0,0 +1,76 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.Arrays;
+
+/**
+ * Where the orbits of the pixels of one frame row stopped at the frame's iteration limit, for the pixels that neither
+ * escaped nor were proven to lie inside the set. Pixels that did not escape and have no entry are inside. Each entry
+ * keeps the exact point its orbit belongs to, which depends on the pass that computed it. Filled by one thread at a
+ * time.
+ */
+final class OrbitRow {
+	private int[] columns = new int[0];
+	private double[] cx = new double[0];
+	private double[] cy = new double[0];
+	private double[] zx = new double[0];
+	private double[] zy = new double[0];
+	private int size;
+
+	/** Adds the orbit of the pixel in {@code column}, the point {@code (cx, cy)}, unless the orbit is NaN. */
+	void add(int column, double cx, double cy, double zx, double zy) {
+		if (Double.isNaN(zx)) {
+			return;
+		}
+		if (size == columns.length) {
+			int capacity = Math.max(8, 2 * size);
+			columns = Arrays.copyOf(columns, capacity);
+			this.cx = Arrays.copyOf(this.cx, capacity);
+			this.cy = Arrays.copyOf(this.cy, capacity);
+			this.zx = Arrays.copyOf(this.zx, capacity);
+			this.zy = Arrays.copyOf(this.zy, capacity);
+		}
+		columns[size] = column;
+		this.cx[size] = cx;
+		this.cy[size] = cy;
+		this.zx[size] = zx;
+		this.zy[size] = zy;
+		size++;
+	}
+
+	/** Adds the entries of {@code source} in columns {@code [from, to)}, moved left by {@code shift} columns. */
+	void addShifted(OrbitRow source, int from, int to, int shift) {
+		for (int i = 0; i < source.size; i++) {
+			if (source.columns[i] >= from && source.columns[i] < to) {
+				add(source.columns[i] - shift, source.cx[i], source.cy[i], source.zx[i], source.zy[i]);
+			}
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	int getColumn(int index) {
+		return columns[index];
+	}
+
+	/** Real parts of the points, valid up to {@link #size()}. Not to be modified. */
+	double[] getPointsX() {
+		return cx;
+	}
+
+	/** Imaginary parts of the points, valid up to {@link #size()}. Not to be modified. */
+	double[] getPointsY() {
+		return cy;
+	}
+
+	/** Copies the real parts of the orbits into a new array of {@link #size()} entries. */
+	double[] copyOrbitsX() {
+		return Arrays.copyOf(zx, size);
+	}
+
+	/** Copies the imaginary parts of the orbits into a new array of {@link #size()} entries. */
+	double[] copyOrbitsY() {
+		return Arrays.copyOf(zy, size);
+	}
+}
@@ -0,0 +1,11 @@
+package edu.drury.mandelbrotnavigator.render;
+
+/** Arithmetic a view is rendered with, chosen from how finely its pixels are spaced. */
+public enum Precision {
+	/** Absolute coordinates in plain doubles. */
+	DOUBLE,
+	/** Offsets from a double-double center, iterated in double-double arithmetic. */
+	DOUBLE_DOUBLE,
+	/** Double offsets from an arbitrary precision reference orbit, with series approximation. */
+	PERTURBATION
+}
@@ -0,0 +1,647 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import edu.drury.mandelbrotnavigator.color.ColorGenerator;
+import edu.drury.mandelbrotnavigator.color.ColorTable;
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.math.MandelbrotMath;
+import edu.drury.mandelbrotnavigator.math.ResumableKernel;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders views off the event dispatch thread. Every submitted view gets a new frame number, and any job whose
+ * frame number is no longer the latest stops at the next row boundary without publishing further tiles.
+ * <p>
+ * Escape values and colors are separate stages: full-resolution frames keep their escape values, so a view that
+ * differs from the last one only by its palette is colored again without recomputing anything. Progressive frames of
+ * views that are not deep also keep the orbits of the pixels that did not escape, so raising the iteration limit
+ * only continues those pixels.
+ * <p>
+ * Deep views (see {@link View#isDeepZoom()}) are rendered with perturbation against a reference orbit at the view
+ * center. They never render tiled, since the tile grid and pan reuse rely on absolute coordinates.
+ * <p>
+ * Frames of {@link Coloring#SMOOTH} views keep the fractions of their escape values and are colored with the
+ * equalized palette of the last smooth frame while they are computed. Once finished, they are colored again with the
+ * palette equalized over their own escape values. They never render tiled either, since tiles hold whole escape
+ * values only.
+ * <p>
+ * All render work runs on a dedicated {@link RenderExecutor}, rows and tiles nearest the focus point first. The focus
+ * is the pointer while it is over the view and the view center otherwise.
+ * <p>
+ * Every frame is measured by a {@link FrameRecorder}; completed frames are reported to the listener.
+ */
+public class RenderEngine {
+	/** Block size of the coarsest progressive pass; passes halve it down to single pixels. */
+	private static final int MAX_BLOCK_SIZE = 64;
+	private static final long DEFAULT_FIRST_PASS_MILLIS = 16;
+	private static final int TILE_SIZE = 64;
+	private static final long DEFAULT_TILE_CACHE_MEGABYTES = 256;
+	/** Largest fraction of a pixel by which a pan may miss the previous frame's grid and still reuse it. */
+	private static final double SHIFT_TOLERANCE = 0.05;
+	private static final int RECOLOR_BAND_HEIGHT = 16;
+
+	private final RenderListener listener;
+	private final AtomicLong latestFrame = new AtomicLong();
+	private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "render-coordinator");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final RenderExecutor executor = new RenderExecutor();
+	private final TileCache tileCache;
+	private final ResumableKernel kernel = MandelbrotMath.getKernel();
+	private final ColorGenerator colorGenerator = new ColorGenerator(ColorGenerator.DEFAULT);
+	private final long firstPassNanos = Long.getLong("mandelbrot.firstPassMillis", DEFAULT_FIRST_PASS_MILLIS)
+			* 1_000_000;
+	/** Wall-clock cost of one sample in the last measured pass, used to size the first pass of the next frame. */
+	private double nanosPerSample;
+	private volatile int focusX = -1;
+	private volatile int focusY = -1;
+	/** Last completed progressive frame and the view it was rendered for. Only touched by the coordinator thread. */
+	private IterationFrame previous;
+	private View previousView;
+	/** Last completed automatic view, with the limit it ended up with. Only touched by the coordinator thread. */
+	private View automaticView;
+
+	/**
+	 * Creates an engine whose tile cache is sized by the {@code mandelbrot.tileCacheMegabytes} system property. The
+	 * {@code mandelbrot.firstPassMillis} property sets the latency budget for the first progressive pass.
+	 */
+	public RenderEngine(RenderListener listener) {
+		this(listener, Long.getLong("mandelbrot.tileCacheMegabytes", DEFAULT_TILE_CACHE_MEGABYTES) * 1024 * 1024);
+	}
+
+	public RenderEngine(RenderListener listener, long tileCacheBytes) {
+		this.listener = listener;
+		this.tileCache = new TileCache(tileCacheBytes);
+	}
+
+	/** Queues a view for rendering and returns its frame number. Older frames are abandoned. */
+	public long submit(View view) {
+		long frame = latestFrame.incrementAndGet();
+		coordinator.execute(() -> render(view, frame));
+		return frame;
+	}
+
+	/**
+	 * Queues a view whose iteration limit, which it ignores, is chosen by {@link IterationBudget} and returns its
+	 * frame number. Frames that keep orbits are then continued to twice the limit for as long as that changes more
+	 * than {@link IterationBudget#CONVERGED_FRACTION} of their pixels. The listener receives the measurements, and so
+	 * the limit, of every step.
+	 */
+	public long submitAutomatic(View view) {
+		long frame = latestFrame.incrementAndGet();
+		coordinator.execute(() -> renderAutomatic(view, frame));
+		return frame;
+	}
+
+	public boolean isCurrent(long frame) {
+		return latestFrame.get() == frame;
+	}
+
+	/** Moves the focus to pixel {@code (x, y)}, or back to the view center if either coordinate is negative. */
+	public void setFocus(int x, int y) {
+		focusX = x;
+		focusY = y;
+	}
+
+	public RenderExecutor getExecutor() {
+		return executor;
+	}
+
+	public void shutdown() {
+		latestFrame.incrementAndGet();
+		coordinator.shutdownNow();
+		executor.shutdown();
+	}
+
+	private int getFocusX(View view) {
+		int x = focusX;
+		return x >= 0 && x < view.getWidth() && focusY >= 0 ? x : view.getWidth() / 2;
+	}
+
+	private int getFocusY(View view) {
+		int y = focusY;
+		return y >= 0 && y < view.getHeight() && focusX >= 0 ? y : view.getHeight() / 2;
+	}
+
+	/** Renders a view and returns its measurements, or {@code null} if it has no pixels. */
+	private RenderStats render(View view, long frame) {
+		if (view.getWidth() <= 0 || view.getHeight() <= 0) {
+			return null;
+		}
+
+		colorGenerator.setPalette(view.getPalette());
+		boolean smooth = view.getColoring() == Coloring.SMOOTH;
+		ColorTable colors = smooth
+				? colorGenerator.getLastEqualizedColorTable(view.getIterations())
+				: colorGenerator.getColorTable(view.getIterations());
+
+		FrameRecorder recorder = new FrameRecorder(frame, view, executor);
+		String kind = render(view, frame, colors, recorder);
+		if (smooth && previousView == view && isCurrent(frame)) {
+			equalize(previous, frame, recorder);
+		}
+		RenderStats stats = recorder.finish(kind, isCurrent(frame));
+		if (stats.isCompleted()) {
+			listener.frameRendered(stats);
+		}
+		return stats;
+	}
+
+	private void renderAutomatic(View view, long frame) {
+		if (view.getWidth() <= 0 || view.getHeight() <= 0) {
+			return;
+		}
+
+		int iterations = view.hasSamePixels(automaticView)
+				? automaticView.getIterations()
+				: IterationBudget.choose(view, executor, () -> !isCurrent(frame));
+		if (iterations < 0) {
+			return;
+		}
+		View budgeted = view.withIterations(iterations);
+		RenderStats stats = render(budgeted, frame);
+		long pixels = (long) view.getWidth() * view.getHeight();
+		while (stats.isCompleted() && budgeted.hasSameGeometry(previousView) && previous.hasOrbits()
+				&& iterations < IterationBudget.MAX_ITERATIONS
+				&& !IterationBudget.isConverged(previous.countOrbits(), pixels)) {
+			iterations *= 2;
+			budgeted = view.withIterations(iterations);
+			stats = render(budgeted, frame);
+			if (IterationBudget.isConverged(stats.getPixelsComputed() - stats.getInteriorPixels(), pixels)) {
+				break;
+			}
+		}
+		if (stats.isCompleted()) {
+			automaticView = budgeted;
+		}
+	}
+
+	/** Renders a view the cheapest way that applies and returns the name of that way. */
+	private String render(View view, long frame, ColorTable colors, FrameRecorder recorder) {
+		if (view.getMode() == RenderMode.TILED && !view.isDeepZoom() && view.getColoring() != Coloring.SMOOTH) {
+			renderTiled(view, frame, colors, recorder);
+			return "tiled";
+		}
+
+		String reuse = reusePrevious(view, frame, colors, recorder);
+		if (reuse != null) {
+			return reuse;
+		}
+
+		if (view.getMode() == RenderMode.SUBDIVISION) {
+			renderSubdivided(view, frame, colors, recorder);
+			return "subdivision";
+		}
+
+		renderProgressive(view, frame, colors, recorder);
+		return "progressive";
+	}
+
+	/**
+	 * Renders the view from the previous frame's escape values if it differs only by palette, by a higher iteration
+	 * limit or by a whole-pixel pan. Returns {@code recolor}, {@code extended} or {@code shifted} if it did, and
+	 * {@code null} otherwise. Smooth views can only reuse frames that kept fractions, and leave recoloring to
+	 * {@link #equalize(IterationFrame, long, FrameRecorder)}.
+	 */
+	private String reusePrevious(View view, long frame, ColorTable colors, FrameRecorder recorder) {
+		boolean smooth = view.getColoring() == Coloring.SMOOTH;
+		if (previousView == null || smooth && !previous.hasFractions()) {
+			return null;
+		}
+
+		if (view.hasSameGeometry(previousView)) {
+			if (smooth) {
+				recorder.reused((long) previous.getWidth() * previous.getHeight());
+				previousView = view;
+			} else {
+				recolor(previous, frame, colors, recorder);
+			}
+			return "recolor";
+		}
+
+		if (view.hasSamePixels(previousView) && previous.hasOrbits()
+				&& view.getIterations() > previous.getIterations()) {
+			renderExtended(view, frame, colors, recorder);
+			return "extended";
+		}
+
+		if (!previousView.isDeepZoom() && !view.isDeepZoom()
+				&& previous.getStep() == view.getStep() && previous.getIterations() == view.getIterations()) {
+			double shiftX = (view.getLeft() - previous.getLeft()) / view.getStep();
+			double shiftY = (previous.getTop() - view.getTop()) / view.getStep();
+			if (Math.abs(shiftX - Math.round(shiftX)) < SHIFT_TOLERANCE
+					&& Math.abs(shiftY - Math.round(shiftY)) < SHIFT_TOLERANCE) {
+				renderShifted(view, frame, colors, recorder, (int) Math.round(shiftX), (int) Math.round(shiftY));
+				return "shifted";
+			}
+		}
+
+		return null;
+	}
+
+	private void renderProgressive(View view, long frame, ColorTable colors, FrameRecorder recorder) {
+		FrameSampler created = FrameSampler.create(view, () -> !isCurrent(frame));
+		if (created == null) {
+			return;
+		}
+		FrameSampler sampler = created.recordingTo(recorder);
+
+		IterationFrame target = new IterationFrame(view.getLeft(), view.getTop(), view.getStep(),
+				view.getIterations(), view.getWidth(), view.getHeight(), sampler.canResume(),
+				view.getColoring() == Coloring.SMOOTH);
+
+		int firstPass = firstBlockSize(view.getWidth(), view.getHeight());
+		for (int pass = firstPass; pass >= 1 && isCurrent(frame); pass /= 2) {
+			int blockSize = pass;
+			boolean refining = pass < firstPass;
+			long start = System.nanoTime();
+			int focusRow = getFocusY(view) / blockSize;
+			int[] order = RenderExecutor.nearestFirst((view.getHeight() + blockSize - 1) / blockSize,
+					row -> Math.abs(row - focusRow));
+			recorder.beginPass(blockSize);
+			executor.forEachInOrder(order.length,
+					i -> renderRow(target, sampler, frame, colors, recorder, order[i], blockSize, refining));
+			recorder.endPass();
+			long samples = countSamples(view.getWidth(), view.getHeight(), blockSize, refining);
+			if (isCurrent(frame) && samples > 0) {
+				nanosPerSample = (double) (System.nanoTime() - start) / samples;
+			}
+		}
+
+		if (isCurrent(frame)) {
+			previous = target;
+			previousView = view;
+		}
+	}
+
+	/**
+	 * Picks the finest power-of-two block size whose pass is expected to finish within the first-pass budget, based
+	 * on the cost per sample measured so far. Starts at the coarsest size until a pass has been measured.
+	 */
+	private int firstBlockSize(int width, int height) {
+		int blockSize = MAX_BLOCK_SIZE;
+		while (blockSize > 1 && nanosPerSample > 0
+				&& countSamples(width, height, blockSize / 2, false) * nanosPerSample < firstPassNanos) {
+			blockSize /= 2;
+		}
+		return blockSize;
+	}
+
+	/** Counts the samples of a pass; a refining pass skips the ones the previous, twice as coarse pass computed. */
+	private static long countSamples(int width, int height, int blockSize, boolean refining) {
+		long columns = (width + blockSize - 1) / blockSize;
+		long rows = (height + blockSize - 1) / blockSize;
+		if (!refining) {
+			return columns * rows;
+		}
+		return columns * rows - ((columns + 1) / 2) * ((rows + 1) / 2);
+	}
+
+	/**
+	 * Computes one row of blocks of a pass and publishes it. Each block is sampled at its top-left pixel and stored
+	 * in the frame at that pixel, so a refining pass only computes the pixels that lie on its own grid but not on the
+	 * grid of the previous pass, and the last pass leaves exact escape values for every pixel.
+	 */
+	private void renderRow(IterationFrame target, FrameSampler sampler, long frame, ColorTable colors,
+			FrameRecorder recorder, int row, int pass, boolean refining) {
+		if (!isCurrent(frame)) {
+			return;
+		}
+
+		int width = target.getWidth();
+		int top = row * pass;
+		int height = Math.min(pass, target.getHeight() - top);
+		int[] values = target.getValues();
+		float[] fractions = target.getFractions();
+		int rowStart = top * width;
+		OrbitRow orbits = target.getOrbits(top);
+
+		if (pass == 1 && !(refining && row % 2 == 0)) {
+			sampler.computeRow(0.5, 1, top + 0.5, values, fractions, rowStart, width, orbits);
+		} else {
+			int first = refining && row % 2 == 0 ? pass : 0;
+			int sampleStep = refining && row % 2 == 0 ? 2 * pass : pass;
+			int[] samples = new int[(width - first + sampleStep - 1) / sampleStep];
+			float[] sampleFractions = fractions != null ? new float[samples.length] : null;
+			sampler.computeRow(first + 0.5, sampleStep, top + 0.5, samples, sampleFractions, 0, samples.length,
+					orbits);
+			for (int i = 0; i < samples.length; i++) {
+				values[rowStart + first + i * sampleStep] = samples[i];
+				if (fractions != null) {
+					fractions[rowStart + first + i * sampleStep] = sampleFractions[i];
+				}
+			}
+		}
+
+		if (pass == 1) {
+			colorize(target, top, top + 1, frame, colors, recorder);
+			return;
+		}
+
+		long start = System.nanoTime();
+		int[] pixels = new int[width * height];
+
+		for (int x = 0; x < width; x += pass) {
+			Arrays.fill(pixels, x, Math.min(x + pass, width), colorOf(colors, values, fractions, rowStart + x));
+		}
+
+		for (int py = 1; py < height; py++) {
+			System.arraycopy(pixels, 0, pixels, py * width, width);
+		}
+		recorder.colorized(System.nanoTime() - start);
+
+		if (isCurrent(frame)) {
+			listener.tileRendered(new Tile(frame, 0, top, width, height, pixels));
+		}
+	}
+
+	/** Renders a view by Mariani-Silver subdivision, publishing each block as soon as it is finished. */
+	private void renderSubdivided(View view, long frame, ColorTable colors, FrameRecorder recorder) {
+		FrameSampler sampler = FrameSampler.create(view, () -> !isCurrent(frame));
+		if (sampler == null) {
+			return;
+		}
+
+		IterationFrame target = new IterationFrame(view.getLeft(), view.getTop(), view.getStep(),
+				view.getIterations(), view.getWidth(), view.getHeight(), false, view.getColoring() == Coloring.SMOOTH);
+
+		float[] fractions = target.getFractions();
+		new SubdivisionRenderer(sampler.recordingTo(recorder), target.getWidth(), target.getHeight(),
+				target.getValues(), fractions, () -> !isCurrent(frame)).render(executor, getFocusX(view),
+						getFocusY(view), (x, y, width, height) -> colorize(target, fractions, x, y, width, height,
+								frame, colors, recorder));
+
+		if (isCurrent(frame)) {
+			previous = target;
+			previousView = view;
+		}
+	}
+
+	/**
+	 * Renders a view that lies on the grid of the previous frame, offset by whole pixels. The overlapping region is
+	 * copied and only the newly exposed rows and columns are computed.
+	 */
+	private void renderShifted(View view, long frame, ColorTable colors, FrameRecorder recorder, int shiftX,
+			int shiftY) {
+		IterationFrame source = previous;
+		IterationFrame target = new IterationFrame(source.getLeft() + shiftX * source.getStep(),
+				source.getTop() - shiftY * source.getStep(), source.getStep(), source.getIterations(),
+				view.getWidth(), view.getHeight(), source.hasOrbits(), view.getColoring() == Coloring.SMOOTH);
+
+		FrameSampler sampler = FrameSampler.absolute(target.getLeft(), target.getTop(), target.getStep(),
+				target.getIterations()).recordingTo(recorder);
+		int width = target.getWidth();
+		int[] sourceValues = source.getValues();
+		int[] values = target.getValues();
+		float[] fractions = target.getFractions();
+		int copyFrom = Math.max(0, -shiftX);
+		int copyTo = Math.min(width, source.getWidth() - shiftX);
+
+		executor.forEachRow(0, target.getHeight(), y -> {
+			if (!isCurrent(frame)) {
+				return;
+			}
+
+			int sourceY = y + shiftY;
+			boolean rowOverlaps = sourceY >= 0 && sourceY < source.getHeight() && copyFrom < copyTo;
+
+			OrbitRow orbits = target.getOrbits(y);
+			if (rowOverlaps) {
+				System.arraycopy(sourceValues, sourceY * source.getWidth() + copyFrom + shiftX,
+						values, y * width + copyFrom, copyTo - copyFrom);
+				recorder.reused(copyTo - copyFrom);
+				if (fractions != null) {
+					System.arraycopy(source.getFractions(), sourceY * source.getWidth() + copyFrom + shiftX,
+							fractions, y * width + copyFrom, copyTo - copyFrom);
+				}
+				if (orbits != null) {
+					orbits.addShifted(source.getOrbits(sourceY), copyFrom + shiftX, copyTo + shiftX, shiftX);
+				}
+			}
+
+			int exposedTo = rowOverlaps ? copyFrom : width;
+			int exposedFrom = rowOverlaps ? copyTo : width;
+			sampler.computeRow(0.5, 1, y + 0.5, values, fractions, y * width, exposedTo, orbits);
+			sampler.computeRow(exposedFrom + 0.5, 1, y + 0.5, values, fractions, y * width + exposedFrom,
+					width - exposedFrom, orbits);
+
+			colorize(target, y, y + 1, frame, colors, recorder);
+		});
+
+		if (isCurrent(frame)) {
+			previous = target;
+			previousView = view;
+		}
+	}
+
+	/**
+	 * Renders the previous frame's view with a higher iteration limit. Escape values of pixels that escaped are
+	 * copied, and only the pixels left with an orbit are iterated further, from where they stopped. Rows nearest the
+	 * focus go first.
+	 */
+	private void renderExtended(View view, long frame, ColorTable colors, FrameRecorder recorder) {
+		IterationFrame source = previous;
+		IterationFrame target = new IterationFrame(source.getLeft(), source.getTop(), source.getStep(),
+				view.getIterations(), source.getWidth(), source.getHeight(), true,
+				view.getColoring() == Coloring.SMOOTH);
+		int focusRow = getFocusY(view);
+		int[] order = RenderExecutor.nearestFirst(target.getHeight(), row -> Math.abs(row - focusRow));
+
+		executor.forEachInOrder(order.length, i -> extendRow(source, target, frame, colors, recorder, order[i]));
+
+		if (isCurrent(frame)) {
+			previous = target;
+			previousView = view;
+		}
+	}
+
+	private void extendRow(IterationFrame source, IterationFrame target, long frame, ColorTable colors,
+			FrameRecorder recorder, int y) {
+		if (!isCurrent(frame)) {
+			return;
+		}
+
+		int width = target.getWidth();
+		int[] values = target.getValues();
+		float[] fractions = target.getFractions();
+		System.arraycopy(source.getValues(), y * width, values, y * width, width);
+		if (fractions != null) {
+			System.arraycopy(source.getFractions(), y * width, fractions, y * width, width);
+		}
+
+		OrbitRow pending = source.getOrbits(y);
+		int count = pending.size();
+		double[] zx = pending.copyOrbitsX();
+		double[] zy = pending.copyOrbitsY();
+		int[] results = new int[count];
+		kernel.continuePoints(pending.getPointsX(), pending.getPointsY(), zx, zy, source.getIterations(),
+				target.getIterations(), results, count);
+		recorder.continued(results, count, source.getIterations());
+		recorder.reused(width - count);
+
+		OrbitRow orbits = target.getOrbits(y);
+		for (int i = 0; i < count; i++) {
+			int column = pending.getColumn(i);
+			values[y * width + column] = results[i];
+			if (results[i] < 0) {
+				orbits.add(column, pending.getPointsX()[i], pending.getPointsY()[i], zx[i], zy[i]);
+			} else if (fractions != null) {
+				fractions[y * width + column] = MandelbrotMath.getFraction(zx[i], zy[i], pending.getPointsX()[i],
+						pending.getPointsY()[i]);
+			}
+		}
+
+		colorize(target, y, y + 1, frame, colors, recorder);
+	}
+
+	/**
+	 * Colors an already computed frame again for a banded view, without touching the escape values. Fractions the
+	 * frame still holds from a smooth view are ignored.
+	 */
+	private void recolor(IterationFrame source, long frame, ColorTable colors, FrameRecorder recorder) {
+		recorder.reused((long) source.getWidth() * source.getHeight());
+		colorizeAll(source, null, frame, colors, recorder);
+	}
+
+	/** Colors a finished frame of a smooth view with the palette equalized over its own escape values. */
+	private void equalize(IterationFrame source, long frame, FrameRecorder recorder) {
+		long start = System.nanoTime();
+		long[] histogram = EscapeHistogram.count(source.getValues(), source.getIterations(), executor);
+		ColorTable colors = colorGenerator.getEqualizedColorTable(source.getIterations(), histogram);
+		recorder.colorized(System.nanoTime() - start);
+		colorizeAll(source, source.getFractions(), frame, colors, recorder);
+	}
+
+	private void colorizeAll(IterationFrame source, float[] fractions, long frame, ColorTable colors,
+			FrameRecorder recorder) {
+		executor.forEachInOrder((source.getHeight() + RECOLOR_BAND_HEIGHT - 1) / RECOLOR_BAND_HEIGHT,
+				band -> {
+					int fromY = band * RECOLOR_BAND_HEIGHT;
+					int toY = Math.min(source.getHeight(), fromY + RECOLOR_BAND_HEIGHT);
+					colorize(source, fractions, 0, fromY, source.getWidth(), toY - fromY, frame, colors, recorder);
+				});
+	}
+
+	/** Maps rows {@code [fromY, toY)} of a frame's escape values to RGB and publishes them as one tile. */
+	private void colorize(IterationFrame source, int fromY, int toY, long frame, ColorTable colors,
+			FrameRecorder recorder) {
+		colorize(source, source.getFractions(), 0, fromY, source.getWidth(), toY - fromY, frame, colors, recorder);
+	}
+
+	/**
+	 * Maps a rectangle of a frame's escape values to RGB and publishes it as one tile, interpolated by
+	 * {@code fractions} unless it is {@code null}.
+	 */
+	private void colorize(IterationFrame source, float[] fractions, int x, int y, int width, int height, long frame,
+			ColorTable colors, FrameRecorder recorder) {
+		if (!isCurrent(frame)) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		int[] values = source.getValues();
+		int[] pixels = new int[width * height];
+
+		for (int row = 0; row < height; row++) {
+			int offset = (y + row) * source.getWidth() + x;
+			for (int column = 0; column < width; column++) {
+				pixels[row * width + column] = colorOf(colors, values, fractions, offset + column);
+			}
+		}
+		recorder.colorized(System.nanoTime() - start);
+
+		if (isCurrent(frame)) {
+			listener.tileRendered(new Tile(frame, x, y, width, height, pixels));
+		}
+	}
+
+	/** Color of pixel {@code index}, interpolated by its fraction if {@code fractions} is not {@code null}. */
+	private static int colorOf(ColorTable colors, int[] values, float[] fractions, int index) {
+		return fractions != null ? colors.colorOf(values[index], fractions[index]) : colors.colorOf(values[index]);
+	}
+
+	/**
+	 * Renders the view from tiles on a grid fixed in the plane for the view's pixel step, taken from the cache where it
+	 * has them. Pixels sample the centers of grid cells like the other modes do, but the frame is snapped to the grid,
+	 * so it can lie up to a pixel off the view. The cache only serves pans and returns to exactly the same step; see
+	 * {@link TileKey}.
+	 */
+	private void renderTiled(View view, long frame, ColorTable colors, FrameRecorder recorder) {
+		double step = view.getStep();
+		long originX = (long) Math.floor(view.getLeft() / step);
+		long originY = (long) Math.floor(-view.getTop() / step);
+		long firstTileX = Math.floorDiv(originX, TILE_SIZE);
+		long firstTileY = Math.floorDiv(originY, TILE_SIZE);
+		int columns = (int) (Math.floorDiv(originX + view.getWidth() - 1, TILE_SIZE) - firstTileX + 1);
+		int rows = (int) (Math.floorDiv(originY + view.getHeight() - 1, TILE_SIZE) - firstTileY + 1);
+
+		long focusX = originX + getFocusX(view);
+		long focusY = originY + getFocusY(view);
+		int[] order = RenderExecutor.nearestFirst(columns * rows, index -> Math.hypot(
+				(firstTileX + index % columns + 0.5) * TILE_SIZE - focusX,
+				(firstTileY + index / columns + 0.5) * TILE_SIZE - focusY));
+
+		executor.forEachInOrder(order.length, i -> renderTile(view, frame, colors, recorder, originX, originY,
+				firstTileX + order[i] % columns, firstTileY + order[i] / columns));
+	}
+
+	private void renderTile(View view, long frame, ColorTable colors, FrameRecorder recorder, long originX,
+			long originY, long tileX, long tileY) {
+		if (!isCurrent(frame)) {
+			return;
+		}
+
+		int iterations = view.getIterations();
+		double step = view.getStep();
+		TileKey key = new TileKey(step, tileX, tileY, iterations);
+		int[] values = tileCache.get(key);
+		boolean cached = values != null;
+
+		if (!cached) {
+			int[] computed = new int[TILE_SIZE * TILE_SIZE];
+			executor.forEachRow(0, TILE_SIZE, y -> {
+				if (isCurrent(frame)) {
+					kernel.computeRow((tileX * TILE_SIZE + 0.5) * step, step, -(tileY * TILE_SIZE + y + 0.5) * step,
+							iterations, computed, y * TILE_SIZE, TILE_SIZE);
+					recorder.computed(computed, y * TILE_SIZE, TILE_SIZE);
+				}
+			});
+			if (!isCurrent(frame)) {
+				return;
+			}
+			tileCache.put(key, computed);
+			values = computed;
+		}
+
+		int screenLeft = (int) (tileX * TILE_SIZE - originX);
+		int screenTop = (int) (tileY * TILE_SIZE - originY);
+		int fromX = Math.max(0, -screenLeft);
+		int fromY = Math.max(0, -screenTop);
+		int toX = Math.min(TILE_SIZE, view.getWidth() - screenLeft);
+		int toY = Math.min(TILE_SIZE, view.getHeight() - screenTop);
+		int width = toX - fromX;
+		if (cached) {
+			recorder.reused((long) width * (toY - fromY));
+		}
+
+		long start = System.nanoTime();
+		int[] pixels = new int[width * (toY - fromY)];
+
+		for (int y = fromY; y < toY; y++) {
+			for (int x = fromX; x < toX; x++) {
+				pixels[(y - fromY) * width + x - fromX] = colors.colorOf(values[y * TILE_SIZE + x]);
+			}
+		}
+		recorder.colorized(System.nanoTime() - start);
+
+		if (isCurrent(frame)) {
+			listener.tileRendered(new Tile(frame, screenLeft + fromX, screenTop + fromY, width, toY - fromY, pixels));
+		}
+	}
+}
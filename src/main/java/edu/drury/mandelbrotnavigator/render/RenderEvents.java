@@ -0,0 +1,87 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Flight Recorder events for rendered frames and passes, committed by {@link FrameRecorder}. */
+final class RenderEvents {
+	private RenderEvents() {
+	}
+
+	@Name("edu.drury.mandelbrotnavigator.RenderFrame")
+	@Label("Render Frame")
+	@Description("A frame rendered on screen or exported")
+	@Category({"Mandelbrot Navigator", "Rendering"})
+	@StackTrace(false)
+	static class Frame extends Event {
+		@Label("Frame")
+		long frame;
+		@Label("Kind")
+		String kind;
+		@Label("Width")
+		int width;
+		@Label("Height")
+		int height;
+		@Label("Iteration Limit")
+		int iterationLimit;
+		@Label("Completed")
+		@Description("False if the frame was abandoned for a newer one")
+		boolean completed;
+		@Label("Pixels Computed")
+		long pixelsComputed;
+		@Label("Pixels Reused")
+		long pixelsReused;
+		@Label("Iterations")
+		long iterations;
+		@Label("Interior Ratio")
+		@Percentage
+		double interiorRatio;
+		@Label("Utilization")
+		@Description("Mean fraction of the frame time the render threads were busy")
+		@Percentage
+		double utilization;
+		@Label("Busiest Thread Utilization")
+		@Percentage
+		double maxThreadUtilization;
+		@Label("Colorize Time")
+		@Timespan
+		long colorizeNanos;
+		@Label("Series Skipped Iterations")
+		@Description("Iterations every pixel skipped through series approximation")
+		int seriesSkippedIterations;
+		@Label("Series Time")
+		@Timespan
+		long seriesNanos;
+	}
+
+	@Name("edu.drury.mandelbrotnavigator.RenderPass")
+	@Label("Render Pass")
+	@Description("One pass of a progressive frame")
+	@Category({"Mandelbrot Navigator", "Rendering"})
+	@StackTrace(false)
+	static class Pass extends Event {
+		@Label("Frame")
+		long frame;
+		@Label("Block Size")
+		int blockSize;
+		@Label("Pixels Computed")
+		long pixelsComputed;
+		@Label("Iterations")
+		long iterations;
+		@Label("Interior Ratio")
+		@Percentage
+		double interiorRatio;
+		@Label("Utilization")
+		@Percentage
+		double utilization;
+		@Label("Colorize Time")
+		@Timespan
+		long colorizeNanos;
+	}
+}
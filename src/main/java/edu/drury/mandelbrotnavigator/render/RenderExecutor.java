@@ -0,0 +1,236 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Work-stealing pool dedicated to rendering, so render work neither competes with other users of the common pool nor
+ * waits behind them. Work is handed out dynamically rather than split up front, since rows through the set cost
+ * orders of magnitude more than rows outside it.
+ */
+public class RenderExecutor {
+	/** Estimated remaining work above which a range of rows splits off half of itself for other workers to steal. */
+	private static final long SPLIT_NANOS = 500_000;
+	private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+
+	private final ForkJoinPool pool;
+	private final List<Worker> workers = new ArrayList<>();
+	private final LongAdder totalBusyNanos = new LongAdder();
+
+	/** Creates an executor with as many threads as the {@code mandelbrot.renderThreads} property, or one per core. */
+	public RenderExecutor() {
+		this(Integer.getInteger("mandelbrot.renderThreads", Runtime.getRuntime().availableProcessors()));
+	}
+
+	public RenderExecutor(int threads) {
+		pool = new ForkJoinPool(Math.max(1, threads), workerPool -> {
+			Worker worker = new Worker(workerPool);
+			synchronized (workers) {
+				workers.add(worker);
+			}
+			return worker;
+		}, null, false);
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Runs {@code task} for every index in {@code [0, count)} and waits for all of them. Indices are started in
+	 * increasing order, so callers put the work they want first at the lowest indices.
+	 */
+	public void forEachInOrder(int count, IntConsumer task) {
+		AtomicInteger next = new AtomicInteger();
+		List<RecursiveAction> runners = new ArrayList<>();
+		for (int i = 0; i < Math.min(count, pool.getParallelism()); i++) {
+			runners.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					for (int index = next.getAndIncrement(); index < count; index = next.getAndIncrement()) {
+						run(task, index);
+					}
+				}
+			});
+		}
+
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(runners);
+			}
+		});
+	}
+
+	/**
+	 * Runs {@code row} for every index in {@code [from, to)}. Called from a task of this executor, the range is worked
+	 * through in order by the calling thread, which splits off the second half of what remains whenever the rows done
+	 * so far suggest the rest is expensive enough to be worth sharing. Cheap ranges therefore cost one task and
+	 * expensive ones spread over idle workers.
+	 */
+	public void forEachRow(int from, int to, IntConsumer row) {
+		RowRange range = new RowRange(from, to, row);
+		if (ForkJoinTask.getPool() == pool) {
+			range.compute();
+		} else {
+			pool.invoke(range);
+		}
+	}
+
+	/** Records how long every worker thread has spent running render work so far, for {@link #utilizationSince}. */
+	public BusySample sampleBusy() {
+		synchronized (workers) {
+			Map<Worker, Long> busyNanos = new HashMap<>();
+			for (Worker worker : workers) {
+				busyNanos.put(worker, worker.getBusyNanos());
+			}
+			return new BusySample(System.nanoTime(), busyNanos);
+		}
+	}
+
+	/**
+	 * Returns, for every worker thread, the fraction of wall-clock time since {@code sample} was taken that it spent
+	 * running render work. Samples are never reset, so any number of callers can measure overlapping intervals.
+	 */
+	public double[] utilizationSince(BusySample sample) {
+		long elapsed = Math.max(1, System.nanoTime() - sample.time);
+		synchronized (workers) {
+			double[] utilization = new double[workers.size()];
+			for (int i = 0; i < utilization.length; i++) {
+				Worker worker = workers.get(i);
+				long busy = worker.getBusyNanos() - sample.busyNanos.getOrDefault(worker, 0L);
+				utilization[i] = Math.min(1, (double) busy / elapsed);
+			}
+			return utilization;
+		}
+	}
+
+	/** Returns the time all worker threads together spent running render work since the executor was created. */
+	public long getBusyNanos() {
+		return totalBusyNanos.sum();
+	}
+
+	public void shutdown() {
+		pool.shutdownNow();
+	}
+
+	/** Returns {@code [0, count)} sorted by increasing {@code distance}, for use with {@link #forEachInOrder}. */
+	static int[] nearestFirst(int count, IntToDoubleFunction distance) {
+		return IntStream.range(0, count).boxed()
+				.sorted(Comparator.comparingDouble(distance::applyAsDouble))
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+
+	private static void run(IntConsumer task, int index) {
+		Thread thread = Thread.currentThread();
+		if (!(thread instanceof Worker)) {
+			task.accept(index);
+			return;
+		}
+
+		Worker worker = (Worker) thread;
+		long start = System.nanoTime();
+		worker.depth++;
+		try {
+			task.accept(index);
+		} finally {
+			worker.depth--;
+			if (worker.depth == 0) {
+				worker.addBusyNanos(System.nanoTime() - start);
+			}
+		}
+	}
+
+	private final class Worker extends ForkJoinWorkerThread {
+		private long busyNanos;
+		/** Depth of nested timed work, so that work joined from inside timed work is not counted twice. */
+		private int depth;
+
+		private Worker(ForkJoinPool pool) {
+			super(pool);
+			setName("render-worker-" + WORKER_COUNT.incrementAndGet());
+			setDaemon(true);
+		}
+
+		@Override
+		protected void onTermination(Throwable exception) {
+			synchronized (workers) {
+				workers.remove(this);
+			}
+			super.onTermination(exception);
+		}
+
+		private synchronized void addBusyNanos(long nanos) {
+			busyNanos += nanos;
+			totalBusyNanos.add(nanos);
+		}
+
+		private synchronized long getBusyNanos() {
+			return busyNanos;
+		}
+	}
+
+	/** Busy time of every worker thread at one moment; see {@link #sampleBusy()}. */
+	public static final class BusySample {
+		private final long time;
+		private final Map<Worker, Long> busyNanos;
+
+		private BusySample(long time, Map<Worker, Long> busyNanos) {
+			this.time = time;
+			this.busyNanos = busyNanos;
+		}
+	}
+
+	private static final class RowRange extends RecursiveAction {
+		private static final long serialVersionUID = -5403733111976149737L;
+
+		private final int from;
+		private final int to;
+		private final IntConsumer row;
+
+		private RowRange(int from, int to, IntConsumer row) {
+			this.from = from;
+			this.to = to;
+			this.row = row;
+		}
+
+		@Override
+		protected void compute() {
+			List<RowRange> forked = new ArrayList<>();
+			long start = System.nanoTime();
+			int end = to;
+
+			for (int index = from; index < end; index++) {
+				run(row, index);
+
+				int done = index + 1 - from;
+				int remaining = end - index - 1;
+				long estimate = (System.nanoTime() - start) / done * remaining;
+				if (remaining >= 2 && estimate > SPLIT_NANOS && getSurplusQueuedTaskCount() <= 0) {
+					int middle = index + 1 + remaining / 2;
+					RowRange half = new RowRange(middle, end, row);
+					half.fork();
+					forked.add(half);
+					end = middle;
+				}
+			}
+
+			for (RowRange half : forked) {
+				half.join();
+			}
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package edu.drury.mandelbrotnavigator.render;
+
+/** Receives finished tiles from a {@link RenderEngine}. Called from render threads. */
+public interface RenderListener {
+	void tileRendered(Tile tile);
+
+	/** Receives the measurements of every completed frame, after its last tile. */
+	default void frameRendered(RenderStats stats) {
+	}
+}
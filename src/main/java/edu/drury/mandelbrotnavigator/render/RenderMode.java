@@ -0,0 +1,10 @@
+package edu.drury.mandelbrotnavigator.render;
+
+public enum RenderMode {
+	/** Recomputes the whole frame, coarse blocks first. */
+	PROGRESSIVE,
+	/** Builds the frame from fixed-size tiles on a per-zoom grid, reusing cached tiles while panning. */
+	TILED,
+	/** Fills rectangles whose border has a single escape value without computing their interior. */
+	SUBDIVISION
+}
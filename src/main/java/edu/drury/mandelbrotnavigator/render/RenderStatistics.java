@@ -0,0 +1,124 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Totals over all frames rendered in this JVM, on screen or exported, and the last completed frame. Published as a
+ * platform MXBean so that headless runs can be watched with any JMX client.
+ */
+public final class RenderStatistics implements RenderStatisticsMXBean {
+	private static final String OBJECT_NAME = "edu.drury.mandelbrotnavigator:type=RenderStatistics";
+	private static final RenderStatistics INSTANCE = register(new RenderStatistics());
+
+	private long framesCompleted;
+	private long framesAbandoned;
+	private long pixelsComputed;
+	private long pixelsReused;
+	private long iterations;
+	private long renderNanos;
+	private long skippedIterations;
+	private long seriesNanos;
+	private RenderStats lastFrame;
+
+	private RenderStatistics() {
+	}
+
+	public static RenderStatistics getInstance() {
+		return INSTANCE;
+	}
+
+	private static RenderStatistics register(RenderStatistics statistics) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, new ObjectName(OBJECT_NAME));
+		} catch (JMException | SecurityException e) {
+			e.printStackTrace();
+		}
+		return statistics;
+	}
+
+	/** Adds a frame to the totals; abandoned frames are only counted. */
+	synchronized void record(RenderStats frame) {
+		if (!frame.isCompleted()) {
+			framesAbandoned++;
+			return;
+		}
+		framesCompleted++;
+		pixelsComputed += frame.getPixelsComputed();
+		pixelsReused += frame.getPixelsReused();
+		iterations += frame.getIterations();
+		renderNanos += frame.getWallNanos();
+		skippedIterations += (long) frame.getSeriesSkippedIterations() * frame.getPixelsComputed();
+		seriesNanos += frame.getSeriesNanos();
+		lastFrame = frame;
+	}
+
+	@Override
+	public synchronized long getFramesCompleted() {
+		return framesCompleted;
+	}
+
+	@Override
+	public synchronized long getFramesAbandoned() {
+		return framesAbandoned;
+	}
+
+	@Override
+	public synchronized long getPixelsComputed() {
+		return pixelsComputed;
+	}
+
+	@Override
+	public synchronized long getPixelsReused() {
+		return pixelsReused;
+	}
+
+	@Override
+	public synchronized long getIterations() {
+		return iterations;
+	}
+
+	@Override
+	public synchronized long getRenderNanos() {
+		return renderNanos;
+	}
+
+	@Override
+	public synchronized long getSkippedIterations() {
+		return skippedIterations;
+	}
+
+	@Override
+	public synchronized long getSeriesNanos() {
+		return seriesNanos;
+	}
+
+	@Override
+	public synchronized double getIterationsPerSecond() {
+		return renderNanos > 0 ? iterations * 1e9 / renderNanos : 0;
+	}
+
+	/** The last completed frame, or {@code null} before the first one. */
+	public synchronized RenderStats getLastFrame() {
+		return lastFrame;
+	}
+
+	@Override
+	public synchronized String getLastFrameSummary() {
+		return lastFrame != null ? lastFrame.toString() : null;
+	}
+
+	@Override
+	public synchronized void reset() {
+		framesCompleted = 0;
+		framesAbandoned = 0;
+		pixelsComputed = 0;
+		pixelsReused = 0;
+		iterations = 0;
+		renderNanos = 0;
+		skippedIterations = 0;
+		seriesNanos = 0;
+		lastFrame = null;
+	}
+}
@@ -0,0 +1,35 @@
+package edu.drury.mandelbrotnavigator.render;
+
+/**
+ * Management interface of {@link RenderStatistics}, registered as
+ * {@code edu.drury.mandelbrotnavigator:type=RenderStatistics}.
+ */
+public interface RenderStatisticsMXBean {
+	long getFramesCompleted();
+
+	/** Frames abandoned for a newer one before they were finished; not included in the other totals. */
+	long getFramesAbandoned();
+
+	long getPixelsComputed();
+
+	long getPixelsReused();
+
+	/** Iterations computed, an upper bound since points that did not escape are counted at the limit. */
+	long getIterations();
+
+	long getRenderNanos();
+
+	/** Iterations skipped through series approximation, summed over all computed pixels. */
+	long getSkippedIterations();
+
+	/** Time spent building series approximations. */
+	long getSeriesNanos();
+
+	/** Iterations per second of wall time over all completed frames, an upper bound like {@link #getIterations()}. */
+	double getIterationsPerSecond();
+
+	/** Summary of the last completed frame, or {@code null} before the first one. */
+	String getLastFrameSummary();
+
+	void reset();
+}
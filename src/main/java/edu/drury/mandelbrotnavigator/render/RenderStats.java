@@ -0,0 +1,162 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measurements of one rendered frame, or of one pass of a frame. Iterations are counted from the escape values, less
+ * those skipped through series approximation, with every point that did not escape counted at the iteration limit, so
+ * they are an upper bound for frames with interior points caught early by the cardioid test or cycle detection.
+ */
+public final class RenderStats {
+	private final String name;
+	private final long frame;
+	private final int width;
+	private final int height;
+	private final int iterationLimit;
+	private final boolean completed;
+	private final long wallNanos;
+	private final long colorizeNanos;
+	private final int seriesSkippedIterations;
+	private final long seriesNanos;
+	private final long pixelsComputed;
+	private final long pixelsReused;
+	private final long iterations;
+	private final long interiorPixels;
+	private final double utilization;
+	private final double[] threadUtilization;
+	private final List<RenderStats> passes;
+
+	RenderStats(String name, long frame, int width, int height, int iterationLimit, boolean completed,
+			long wallNanos, long colorizeNanos, int seriesSkippedIterations, long seriesNanos, long pixelsComputed,
+			long pixelsReused, long iterations, long interiorPixels, double utilization, double[] threadUtilization,
+			List<RenderStats> passes) {
+		this.name = name;
+		this.frame = frame;
+		this.width = width;
+		this.height = height;
+		this.iterationLimit = iterationLimit;
+		this.completed = completed;
+		this.wallNanos = wallNanos;
+		this.colorizeNanos = colorizeNanos;
+		this.seriesSkippedIterations = seriesSkippedIterations;
+		this.seriesNanos = seriesNanos;
+		this.pixelsComputed = pixelsComputed;
+		this.pixelsReused = pixelsReused;
+		this.iterations = iterations;
+		this.interiorPixels = interiorPixels;
+		this.utilization = utilization;
+		this.threadUtilization = threadUtilization;
+		this.passes = List.copyOf(passes);
+	}
+
+	/** How the frame was rendered, such as {@code progressive} or {@code export}, or the block size of a pass. */
+	public String getName() {
+		return name;
+	}
+
+	/** Frame number given by the {@link RenderEngine}, or 0 for exports. */
+	public long getFrame() {
+		return frame;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getIterationLimit() {
+		return iterationLimit;
+	}
+
+	/** Whether the frame was finished rather than abandoned for a newer one. */
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	/** Time spent mapping escape values to colors, summed over all threads. */
+	public long getColorizeNanos() {
+		return colorizeNanos;
+	}
+
+	/** Iterations every pixel skipped through series approximation; 0 for frames that are not deep, and for passes. */
+	public int getSeriesSkippedIterations() {
+		return seriesSkippedIterations;
+	}
+
+	/** Time spent building the series approximation; 0 for frames that are not deep, and for passes. */
+	public long getSeriesNanos() {
+		return seriesNanos;
+	}
+
+	public long getPixelsComputed() {
+		return pixelsComputed;
+	}
+
+	/** Pixels taken from an earlier frame or from the tile cache instead of computed. */
+	public long getPixelsReused() {
+		return pixelsReused;
+	}
+
+	/**
+	 * Iterations computed, an upper bound since points that did not escape are counted at the limit even when the
+	 * cardioid test or cycle detection stopped them early.
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+	public long getInteriorPixels() {
+		return interiorPixels;
+	}
+
+	/** Fraction of computed pixels that did not escape. */
+	public double getInteriorRatio() {
+		return pixelsComputed > 0 ? (double) interiorPixels / pixelsComputed : 0;
+	}
+
+	/** Upper bound of the iterations computed per second of wall time; see {@link #getIterations()}. */
+	public double getIterationsPerSecond() {
+		return wallNanos > 0 ? iterations * 1e9 / wallNanos : 0;
+	}
+
+	/** Fraction of the wall time the render threads were busy, averaged over all of them. */
+	public double getUtilization() {
+		return utilization;
+	}
+
+	/** Fraction of the wall time each render thread was busy; empty for passes. */
+	public double[] getThreadUtilization() {
+		return threadUtilization.clone();
+	}
+
+	/** The passes of a progressive frame, coarsest first; empty for other frames. */
+	public List<RenderStats> getPasses() {
+		return passes;
+	}
+
+	@Override
+	public String toString() {
+		double[] range = threadUtilization.length > 0
+				? new double[] {Arrays.stream(threadUtilization).min().getAsDouble(),
+						Arrays.stream(threadUtilization).max().getAsDouble()}
+				: new double[] {utilization, utilization};
+		return String.format(Locale.ROOT,
+				"%s %dx%d: %.1f ms, <= %.1f M iterations/s, %d computed, %d reused, %.1f%% interior,"
+						+ " %.0f%% busy (%.0f-%.0f%% per thread), %.1f ms coloring",
+				name, width, height, wallNanos / 1e6, getIterationsPerSecond() / 1e6, pixelsComputed, pixelsReused,
+				100 * getInteriorRatio(), 100 * utilization, 100 * range[0], 100 * range[1], colorizeNanos / 1e6)
+				+ (seriesNanos > 0
+						? String.format(Locale.ROOT, ", series skipped %d iterations in %.1f ms",
+								seriesSkippedIterations, seriesNanos / 1e6)
+						: "");
+	}
+}
@@ -0,0 +1,191 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Mariani-Silver rendering: computes the border of a rectangle, fills the interior when every border pixel has the
+ * same escape value, and otherwise splits the rectangle in two and recurses as fork/join tasks. Exact for rectangles
+ * bordered by non-escaping points, since the Mandelbrot set is connected, and a heuristic for uniform escape values;
+ * {@link #countMismatches(View)}, run by {@code BatchRenderer --verify subdivision}, measures how often the heuristic
+ * is wrong for a view. Points escaping at the same iteration form rings around the whole set, so a uniform escaped
+ * border can only hold points of the set inside if it surrounds all of it, and rectangles with such a border are split
+ * rather than filled if they contain the origin.
+ * <p>
+ * With fractions, only rectangles bordered by points that did not escape are filled, since the normalized iteration
+ * counts inside a rectangle of escaped points are never uniform.
+ */
+public final class SubdivisionRenderer {
+	/** Side of the blocks the frame is divided into first, each reported when it is finished. */
+	private static final int BLOCK_SIZE = 64;
+	/** Rectangles with a side at most this long are computed pixel by pixel. */
+	private static final int MIN_SIZE = 6;
+	private static final int UNCOMPUTED = Integer.MIN_VALUE;
+
+	/** Receives every finished block of a frame. Called from fork/join worker threads. */
+	public interface BlockListener {
+		void blockRendered(int x, int y, int width, int height);
+	}
+
+	private final FrameSampler sampler;
+	private final int width;
+	private final int height;
+	private final int[] values;
+	private final float[] fractions;
+	private final BooleanSupplier cancelled;
+
+	/** Renders into {@code values}, a row-major {@code width * height} array. */
+	public SubdivisionRenderer(FrameSampler sampler, int width, int height, int[] values, BooleanSupplier cancelled) {
+		this(sampler, width, height, values, null, cancelled);
+	}
+
+	/** Renders into {@code values}, and the fractions of escaped points into {@code fractions} unless it is null. */
+	public SubdivisionRenderer(FrameSampler sampler, int width, int height, int[] values, float[] fractions,
+			BooleanSupplier cancelled) {
+		this.sampler = sampler;
+		this.width = width;
+		this.height = height;
+		this.values = values;
+		this.fractions = fractions;
+		this.cancelled = cancelled;
+	}
+
+	/** Renders the frame, starting with the blocks closest to pixel {@code (focusX, focusY)}. */
+	public void render(RenderExecutor executor, int focusX, int focusY, BlockListener listener) {
+		Arrays.fill(values, UNCOMPUTED);
+
+		int columns = (width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		int rows = (height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		int[] order = RenderExecutor.nearestFirst(columns * rows, index -> Math.hypot(
+				(index % columns + 0.5) * BLOCK_SIZE - focusX, (index / columns + 0.5) * BLOCK_SIZE - focusY));
+
+		executor.forEachInOrder(order.length, i -> {
+			int x = order[i] % columns * BLOCK_SIZE;
+			int y = order[i] / columns * BLOCK_SIZE;
+			int blockWidth = Math.min(BLOCK_SIZE, width - x);
+			int blockHeight = Math.min(BLOCK_SIZE, height - y);
+			new Subdivision(x, y, x + blockWidth, y + blockHeight).invoke();
+			if (!cancelled.getAsBoolean()) {
+				listener.blockRendered(x, y, blockWidth, blockHeight);
+			}
+		});
+	}
+
+	/**
+	 * Renders a view both by subdivision and pixel by pixel and returns the number of pixels whose escape values
+	 * differ. Zero means subdivision was pixel-exact for the view.
+	 */
+	public static int countMismatches(View view) {
+		FrameSampler sampler = FrameSampler.create(view);
+		int width = view.getWidth();
+		int height = view.getHeight();
+		int[] subdivided = new int[width * height];
+		RenderExecutor executor = new RenderExecutor();
+		try {
+			new SubdivisionRenderer(sampler, width, height, subdivided, () -> false)
+					.render(executor, width / 2, height / 2, (x, y, blockWidth, blockHeight) -> {});
+		} finally {
+			executor.shutdown();
+		}
+
+		int[] row = new int[width];
+		int mismatches = 0;
+		for (int y = 0; y < height; y++) {
+			sampler.computeRow(0.5, 1, y + 0.5, row, 0, width);
+			for (int x = 0; x < width; x++) {
+				if (row[x] != subdivided[y * width + x]) {
+					mismatches++;
+				}
+			}
+		}
+		return mismatches;
+	}
+
+	private final class Subdivision extends RecursiveAction {
+		private static final long serialVersionUID = -6191025413814707699L;
+
+		private final int x0;
+		private final int y0;
+		private final int x1;
+		private final int y1;
+
+		/** Covers pixels {@code [x0, x1) x [y0, y1)}. */
+		private Subdivision(int x0, int y0, int x1, int y1) {
+			this.x0 = x0;
+			this.y0 = y0;
+			this.x1 = x1;
+			this.y1 = y1;
+		}
+
+		@Override
+		protected void compute() {
+			if (cancelled.getAsBoolean()) {
+				return;
+			}
+
+			if (x1 - x0 <= MIN_SIZE || y1 - y0 <= MIN_SIZE) {
+				for (int y = y0; y < y1; y++) {
+					computeSpan(x0, x1, y);
+				}
+				return;
+			}
+
+			computeSpan(x0, x1, y0);
+			computeSpan(x0, x1, y1 - 1);
+			for (int y = y0 + 1; y < y1 - 1; y++) {
+				computeSpan(x0, x0 + 1, y);
+				computeSpan(x1 - 1, x1, y);
+			}
+
+			int value = values[y0 * width + x0];
+			if (isBorderUniform() && (value < 0 || fractions == null && !sampler.containsOrigin(x0, y0, x1, y1))) {
+				for (int y = y0 + 1; y < y1 - 1; y++) {
+					Arrays.fill(values, y * width + x0 + 1, y * width + x1 - 1, value);
+				}
+				return;
+			}
+
+			if (x1 - x0 >= y1 - y0) {
+				int middle = (x0 + x1) >>> 1;
+				invokeAll(new Subdivision(x0, y0, middle, y1), new Subdivision(middle, y0, x1, y1));
+			} else {
+				int middle = (y0 + y1) >>> 1;
+				invokeAll(new Subdivision(x0, y0, x1, middle), new Subdivision(x0, middle, x1, y1));
+			}
+		}
+
+		/** Computes the pixels of row {@code y} in {@code [from, to)} that no other rectangle computed yet. */
+		private void computeSpan(int from, int to, int y) {
+			int rowStart = y * width;
+			int x = from;
+			while (x < to) {
+				if (values[rowStart + x] != UNCOMPUTED) {
+					x++;
+					continue;
+				}
+				int end = x + 1;
+				while (end < to && values[rowStart + end] == UNCOMPUTED) {
+					end++;
+				}
+				sampler.computeRow(x + 0.5, 1, y + 0.5, values, fractions, rowStart + x, end - x);
+				x = end;
+			}
+		}
+
+		private boolean isBorderUniform() {
+			int value = values[y0 * width + x0];
+			for (int x = x0; x < x1; x++) {
+				if (values[y0 * width + x] != value || values[(y1 - 1) * width + x] != value) {
+					return false;
+				}
+			}
+			for (int y = y0 + 1; y < y1 - 1; y++) {
+				if (values[y * width + x0] != value || values[y * width + x1 - 1] != value) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
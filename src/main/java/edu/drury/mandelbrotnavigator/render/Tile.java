@@ -0,0 +1,45 @@
+package edu.drury.mandelbrotnavigator.render;
+
+/** A finished rectangle of RGB pixels belonging to one frame. */
+public final class Tile {
+	private final long frame;
+	private final int x;
+	private final int y;
+	private final int width;
+	private final int height;
+	private final int[] pixels;
+
+	public Tile(long frame, int x, int y, int width, int height, int[] pixels) {
+		this.frame = frame;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.pixels = pixels;
+	}
+
+	public long getFrame() {
+		return frame;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/** Row-major RGB pixels, {@code width * height} long. */
+	public int[] getPixels() {
+		return pixels;
+	}
+}
@@ -0,0 +1,43 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Least recently used cache of iteration tiles, bounded by an approximate memory size in bytes. */
+class TileCache {
+	private final long maxBytes;
+	private final LinkedHashMap<TileKey, int[]> tiles = new LinkedHashMap<>(256, 0.75f, true);
+	private long bytes = 0;
+
+	TileCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	synchronized int[] get(TileKey key) {
+		return tiles.get(key);
+	}
+
+	synchronized void put(TileKey key, int[] values) {
+		int[] previous = tiles.put(key, values);
+		if (previous != null) {
+			bytes -= sizeOf(previous);
+		}
+		bytes += sizeOf(values);
+
+		Iterator<Map.Entry<TileKey, int[]>> iterator = tiles.entrySet().iterator();
+		while (bytes > maxBytes && iterator.hasNext()) {
+			bytes -= sizeOf(iterator.next().getValue());
+			iterator.remove();
+		}
+	}
+
+	synchronized void clear() {
+		tiles.clear();
+		bytes = 0;
+	}
+
+	private static long sizeOf(int[] values) {
+		return 4L * values.length;
+	}
+}
@@ -0,0 +1,36 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import java.util.Objects;
+
+/**
+ * Identifies a tile of the complex plane. The zoom level is the exact pixel step, so two views share tiles only when
+ * they sample the plane on the same grid: tiles are reused while panning and when returning to exactly the same scale,
+ * such as the home view or a bookmark, but not after zooming in and back out, since the zoom factors do not cancel
+ * exactly in floating point.
+ */
+final class TileKey {
+	private final long level;
+	private final long tileX;
+	private final long tileY;
+	private final int iterations;
+
+	TileKey(double step, long tileX, long tileY, int iterations) {
+		this.level = Double.doubleToLongBits(step);
+		this.tileX = tileX;
+		this.tileY = tileY;
+		this.iterations = iterations;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		TileKey tileKey = (TileKey) o;
+		return level == tileKey.level && tileX == tileKey.tileX && tileY == tileKey.tileY && iterations == tileKey.iterations;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(level, tileX, tileY, iterations);
+	}
+}
@@ -0,0 +1,158 @@
+package edu.drury.mandelbrotnavigator.render;
+
+import edu.drury.mandelbrotnavigator.color.Coloring;
+import edu.drury.mandelbrotnavigator.math.DoubleDouble;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Objects;
+
+/** Immutable description of a frame to render. */
+public final class View {
+	/**
+	 * Pixels have to be at least this many units in the last place of their coordinates apart for an arithmetic to
+	 * resolve them. See {@link #getPrecision()}.
+	 */
+	private static final double MIN_PIXEL_ULPS = 64;
+	/** Ratio between the unit in the last place of a double and of a double-double of the same magnitude. */
+	private static final double DOUBLE_DOUBLE_ULP_RATIO = 0x1p53;
+
+	private final DoubleDouble x;
+	private final DoubleDouble y;
+	private final double scale;
+	private final int iterations;
+	private final Color[] palette;
+	private final int width;
+	private final int height;
+	private final RenderMode mode;
+	private final Coloring coloring;
+
+	/** Creates a view with {@link Coloring#BANDED} coloring. */
+	public View(DoubleDouble x, DoubleDouble y, double scale, int iterations, Color[] palette, int width, int height,
+			RenderMode mode) {
+		this(x, y, scale, iterations, palette, width, height, mode, Coloring.BANDED);
+	}
+
+	private View(DoubleDouble x, DoubleDouble y, double scale, int iterations, Color[] palette, int width, int height,
+			RenderMode mode, Coloring coloring) {
+		this.x = x;
+		this.y = y;
+		this.scale = scale;
+		this.iterations = iterations;
+		this.palette = palette.clone();
+		this.width = width;
+		this.height = height;
+		this.mode = mode;
+		this.coloring = coloring;
+	}
+
+	public DoubleDouble getX() {
+		return x;
+	}
+
+	public DoubleDouble getY() {
+		return y;
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	public Color[] getPalette() {
+		return palette.clone();
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public RenderMode getMode() {
+		return mode;
+	}
+
+	public Coloring getColoring() {
+		return coloring;
+	}
+
+	/** Returns the same view with an iteration limit of {@code iterations}. */
+	public View withIterations(int iterations) {
+		return new View(x, y, scale, iterations, palette, width, height, mode, coloring);
+	}
+
+	/** Returns the same view colored by {@code coloring}. */
+	public View withColoring(Coloring coloring) {
+		return new View(x, y, scale, iterations, palette, width, height, mode, coloring);
+	}
+
+	/** Left edge in absolute coordinates, only meaningful for {@link Precision#DOUBLE} views. */
+	public double getLeft() {
+		return x.doubleValue() - (1.0 * width / height) * scale / 2;
+	}
+
+	/** Top edge in absolute coordinates, only meaningful for {@link Precision#DOUBLE} views. */
+	public double getTop() {
+		return y.doubleValue() + scale / 2;
+	}
+
+	public double getStep() {
+		return scale / height;
+	}
+
+	/**
+	 * Picks the cheapest arithmetic that still resolves neighbouring pixels: doubles, then double-doubles (down to
+	 * scales around {@code 1e-28} for centers of magnitude one), then perturbation.
+	 */
+	public Precision getPrecision() {
+		double magnitude = Math.max(Math.abs(x.doubleValue()), Math.abs(y.doubleValue())) + scale;
+		double pixelUlps = getStep() / Math.ulp(magnitude);
+		if (pixelUlps >= MIN_PIXEL_ULPS) {
+			return Precision.DOUBLE;
+		} else if (pixelUlps * DOUBLE_DOUBLE_ULP_RATIO >= MIN_PIXEL_ULPS) {
+			return Precision.DOUBLE_DOUBLE;
+		}
+		return Precision.PERTURBATION;
+	}
+
+	/** Tests whether the view needs more than plain double precision. */
+	public boolean isDeepZoom() {
+		return getPrecision() != Precision.DOUBLE;
+	}
+
+	/** Tests whether both views cover the same pixels of the plane with the same iteration count. */
+	public boolean hasSameGeometry(View view) {
+		return hasSamePixels(view) && iterations == view.iterations;
+	}
+
+	/** Tests whether both views cover the same pixels of the plane, whatever their iteration counts. */
+	public boolean hasSamePixels(View view) {
+		return view != null && view.x.equals(x) && view.y.equals(y) && Double.compare(view.scale, scale) == 0
+				&& width == view.width && height == view.height;
+	}
+
+	@Override
+	public String toString() {
+		return "View{" + "x=" + x + ", y=" + y + ", scale=" + scale + ", iterations=" + iterations
+				+ ", width=" + width + ", height=" + height + ", mode=" + mode + ", coloring=" + coloring + '}';
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		View view = (View) o;
+		return view.x.equals(x) && view.y.equals(y) && Double.compare(view.scale, scale) == 0 && iterations == view.iterations && width == view.width && height == view.height && mode == view.mode && coloring == view.coloring && Arrays.equals(palette, view.palette);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hash(x, y, scale, iterations, width, height, mode, coloring) + Arrays.hashCode(palette);
+	}
+}